@@ -0,0 +1,34 @@
+package bench;
+
+import common.VirtualAssertions;
+import org.junit.jupiter.api.Assertions;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * assertTimeoutPreemptively 호출 비용 비교 (호출마다 platform thread vs 공유 executor 의 virtual thread)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class AssertTimeoutPreemptivelyBenchmark {
+
+    private final Duration timeout = Duration.ofSeconds(10);
+
+    private int value;
+
+    @Benchmark
+    public int platformThread() {
+        return Assertions.assertTimeoutPreemptively(timeout, () -> value++);
+    }
+
+    @Benchmark
+    public int virtualThread() {
+        return VirtualAssertions.assertTimeoutPreemptively(timeout, () -> value++);
+    }
+}
@@ -0,0 +1,26 @@
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * src/jmh 벤치마크 실행
+ * <p>
+ * classpath : src/main, src/test, src/jmh 컴파일 결과 + lib/*.jar + lib/jmh/*.jar (jmh-generator-annprocess 는 annotation processor)
+ * <p>
+ * args[0] 로 실행할 벤치마크 정규식을 지정할 수 있다. (default: 전체)
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : ".*Benchmark.*")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,121 @@
+package bench;
+
+import example.Calculator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Calculator 연산 throughput 측정
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CalculatorBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private final Calculator cal = new Calculator();
+
+    private int a;
+    private int b;
+    private int[] left;
+    private int[] right;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        a = random.nextInt();
+        b = random.nextInt(1, Integer.MAX_VALUE);
+        left = new int[BATCH];
+        right = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            left[i] = random.nextInt();
+            right[i] = random.nextInt(1, Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public int add() {
+        return cal.add(a, b);
+    }
+
+    @Benchmark
+    public int subtract() {
+        return cal.subtract(a, b);
+    }
+
+    @Benchmark
+    public int multiply() {
+        return cal.multiply(a, b);
+    }
+
+    @Benchmark
+    public int divide() {
+        return cal.divide(a, b);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void addBatch(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(cal.add(left[i], right[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void multiplyBatch(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(cal.multiply(left[i], right[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void divideBatch(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(cal.divide(left[i], right[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void polymorphicCallSite(CallSite callSite, Blackhole bh) {
+        IntBinaryOperator[] operators = callSite.operators;
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(operators[i].applyAsInt(left[i], right[i]));
+        }
+    }
+
+    /**
+     * polymorphicCallSite 만 쓰는 state. 다른 benchmark 가 polymorphism 수만큼 반복 실행되지 않도록 따로 둔다.
+     */
+    @State(Scope.Thread)
+    public static class CallSite {
+
+        /**
+         * 호출 지점에서 보게 되는 구현체 수 (1 = monomorphic, 2 = bimorphic, 4 = megamorphic)
+         */
+        @Param({"1", "2", "4"})
+        private int polymorphism;
+
+        private IntBinaryOperator[] operators;
+
+        @Setup
+        public void setUp() {
+            Calculator cal = new Calculator();
+            IntBinaryOperator[] all = {cal::add, cal::subtract, cal::multiply, cal::divide};
+            operators = new IntBinaryOperator[BATCH];
+            for (int i = 0; i < BATCH; i++) {
+                operators[i] = all[i % polymorphism];
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package bench;
+
+import example.Calculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * scalar 2-인자 호출 loop 와 bulk API 비교 (Vector API 경로)
+ * <p>
+ * Score 는 thread 당 원소 처리량이므로 -t 로 thread 수를 늘려 core 당 speedup 을 확인한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class CalculatorBulkBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    int size;
+
+    final Calculator cal = new Calculator();
+
+    int[] a;
+    int[] b;
+    int[] result;
+    long[] wideResult;
+    IntBuffer directA;
+    IntBuffer directB;
+    IntBuffer directResult;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        a = random.ints(size, -1000, 1000).toArray();
+        b = random.ints(size, -1000, 1000).toArray();
+        result = new int[size];
+        wideResult = new long[size];
+        directA = direct(a);
+        directB = direct(b);
+        directResult = ByteBuffer.allocateDirect(size * Integer.BYTES).asIntBuffer();
+    }
+
+    private static IntBuffer direct(int[] values) {
+        IntBuffer buffer = ByteBuffer.allocateDirect(values.length * Integer.BYTES).asIntBuffer();
+        buffer.put(values).flip();
+        return buffer;
+    }
+
+    /**
+     * 원소 단위 처리량 (ops/us) 으로 비교하기 위해 size 만큼 operation 으로 센다.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Elements {
+        public long elements;
+    }
+
+    @Benchmark
+    public int[] scalarAdd(Elements counter) {
+        for (int i = 0; i < size; i++) {
+            result[i] = cal.add(a[i], b[i]);
+        }
+        counter.elements += size;
+        return result;
+    }
+
+    @Benchmark
+    public int[] scalarMultiply(Elements counter) {
+        for (int i = 0; i < size; i++) {
+            result[i] = cal.multiply(a[i], b[i]);
+        }
+        counter.elements += size;
+        return result;
+    }
+
+    @Benchmark
+    public int[] bulkAdd(Elements counter) {
+        cal.add(a, b, result);
+        counter.elements += size;
+        return result;
+    }
+
+    @Benchmark
+    public int[] bulkMultiply(Elements counter) {
+        cal.multiply(a, b, result);
+        counter.elements += size;
+        return result;
+    }
+
+    @Benchmark
+    public int[] bulkAddExact(Elements counter) {
+        cal.addExact(a, b, result);
+        counter.elements += size;
+        return result;
+    }
+
+    @Benchmark
+    public long[] bulkAddWidening(Elements counter) {
+        cal.addWidening(a, b, wideResult);
+        counter.elements += size;
+        return wideResult;
+    }
+
+    @Benchmark
+    public IntBuffer bulkAddDirectBuffer(Elements counter) {
+        cal.add(directA, directB, directResult);
+        counter.elements += size;
+        return directResult;
+    }
+}
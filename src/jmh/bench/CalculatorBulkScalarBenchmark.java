@@ -0,0 +1,10 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * CalculatorBulkBenchmark 을 Vector API 없이 (scalar fallback) 실행
+ */
+@Fork(value = 2, jvmArgsAppend = "-Dcalculator.vector=false")
+public class CalculatorBulkScalarBenchmark extends CalculatorBulkBenchmark {
+}
@@ -0,0 +1,72 @@
+package bench;
+
+import example.Calculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 단일 thread loop 와 fork/join reduction 비교
+ * <p>
+ * -p parallelism=1,2,4,... 로 core 수에 따른 scaling 을 확인한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class CalculatorReductionBenchmark {
+
+    @Param({"100000", "10000000", "100000000"})
+    int size;
+
+    @Param({"1", "4", "0"}) // 0 = available processors
+    int parallelism;
+
+    @Param({"65536"})
+    int splitThreshold;
+
+    int[] values;
+    ForkJoinPool pool;
+    Calculator cal;
+
+    @Setup
+    public void setUp() {
+        values = new SplittableRandom(42).ints(size, -1000, 1000).toArray();
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        cal = new Calculator(pool, splitThreshold);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long sequentialSum() {
+        long sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sum() {
+        return cal.sum(values);
+    }
+
+    @Benchmark
+    public long sumIntStream() {
+        return cal.sum(IntStream.of(values));
+    }
+
+    @Benchmark
+    public int max() {
+        return cal.max(values).getAsInt();
+    }
+}
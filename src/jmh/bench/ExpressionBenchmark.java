@@ -0,0 +1,55 @@
+package bench;
+
+import example.Calculator;
+import example.Expression;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 식을 노드마다 Calculator 로 해석하는 경우와 compile 된 evaluator 비교
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ExpressionBenchmark {
+
+    private static final String FORMULA = "(a + b) * c - a / (b + 1) + 3 * (c - a)";
+
+    private static final Expression EXPRESSION = Expression.compile(FORMULA);
+
+    /**
+     * static final 이므로 JIT 이 MethodHandle tree 를 constant 로 보고 inline 한다.
+     */
+    private static final MethodHandle EVALUATOR = EXPRESSION.toMethodHandle();
+
+    private final Calculator cal = new Calculator();
+
+    private int[] values = {7, 3, 11};
+
+    @Benchmark
+    public int interpreted() {
+        return EXPRESSION.interpret(values);
+    }
+
+    @Benchmark
+    public int compiled() {
+        return EXPRESSION.evaluate(values);
+    }
+
+    @Benchmark
+    public int compiledConstantHandle() throws Throwable {
+        return (int) EVALUATOR.invokeExact(values);
+    }
+
+    @Benchmark
+    public int handWritten() {
+        int a = values[0], b = values[1], c = values[2];
+        return cal.add(cal.subtract(cal.multiply(cal.add(a, b), c), cal.divide(a, cal.add(b, 1))),
+                cal.multiply(3, cal.subtract(c, a)));
+    }
+}
@@ -0,0 +1,50 @@
+package bench;
+
+import example.Idol;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idol.Builder, Idol.toString() throughput / allocation 측정 (-prof gc)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IdolBenchmark {
+
+    private String memberName = "카리나";
+    private int age = 20;
+    private LocalDate birthDate = LocalDate.of(2000, 4, 11);
+
+    private Idol karina;
+
+    @Setup
+    public void setUp() {
+        karina = new Idol.Builder(memberName, age).isLeader(1).birthDate(birthDate).build();
+    }
+
+    @Benchmark
+    public Idol build() {
+        return new Idol.Builder(memberName, age).build();
+    }
+
+    @Benchmark
+    public Idol buildWithAllFields() {
+        return new Idol.Builder(memberName, age).isLeader(1).birthDate(birthDate).build();
+    }
+
+    @Benchmark
+    public String toStringOnly() {
+        return karina.toString();
+    }
+
+    @Benchmark
+    public String buildAndToString() {
+        return new Idol.Builder(memberName, age).isLeader(1).birthDate(birthDate).build().toString();
+    }
+}
@@ -0,0 +1,76 @@
+package bench;
+
+import common.JournalingProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test 하나 분량 (property 1 개 변경) 의 system property backup / restore 비용
+ * <p>
+ * copyAll: 매번 전체를 복사하고 System.setProperties 로 바꾸는 방식 (기존 SharedResourcesDemo)
+ * journal: JournalingProperties 로 바뀐 key 만 되돌리는 방식 (@RestoreSystemProperties)
+ * <p>
+ * extraProperties 만큼 property 를 더 넣어 전체 property 수에 따른 차이를 본다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SystemPropertiesRestoreBenchmark {
+
+    @State(Scope.Thread)
+    public static class SystemProperties {
+
+        @Param({"0", "1000"})
+        private int extraProperties;
+
+        private Properties original;
+        private JournalingProperties journaling;
+
+        @Setup
+        public void setUp() {
+            original = System.getProperties();
+            for (int i = 0; i < extraProperties; i++) {
+                original.setProperty("bench.extra." + i, String.valueOf(i));
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            if (journaling != null) {
+                journaling.close();
+            }
+            System.setProperties(original);
+            for (int i = 0; i < extraProperties; i++) {
+                original.remove("bench.extra." + i);
+            }
+        }
+
+        JournalingProperties journaling() {
+            if (journaling == null) {
+                journaling = JournalingProperties.install();
+            }
+            return journaling;
+        }
+    }
+
+    @Benchmark
+    public Properties copyAll(SystemProperties state) {
+        Properties backup = new Properties();
+        backup.putAll(System.getProperties());
+        System.setProperty("my.prop", "apple");
+        System.setProperties(backup);
+        return backup;
+    }
+
+    @Benchmark
+    public int journal(SystemProperties state) {
+        JournalingProperties journaling = state.journaling();
+        journaling.begin();
+        System.setProperty("my.prop", "apple");
+        return journaling.restore();
+    }
+}
@@ -0,0 +1,147 @@
+package bench;
+
+import common.VirtualThreadConfigurationStrategy;
+import common.VirtualThreadExtension;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * sleep / I/O 위주 suite 를 실행한 시간 비교
+ * <ul>
+ *     <li>dynamic : 기본 parallel 설정 (CPU 당 worker 1 개), 참고용</li>
+ *     <li>platform : VirtualThreadConfigurationStrategy (worker 256 개), VirtualThreadExtension 없음 (대조군)</li>
+ *     <li>virtual : platform 과 같은 설정에 VirtualThreadExtension</li>
+ * </ul>
+ * platform 과 virtual 의 차이가 extension 의 효과이고, dynamic 과 platform 의 차이는 worker 수의 효과이다.
+ * <p>
+ * classpath : src/test 컴파일 결과 + lib/*.jar (junit-platform-launcher 포함) + lib/jmh/*.jar
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadExecutionBenchmark {
+
+    private static final int INVOCATIONS = 500;
+    private static final int BLOCKING_MILLIS = 20;
+
+    private static volatile int serverPort;
+
+    @Param({"dynamic", "platform", "virtual"})
+    String executor;
+
+    @Param({"sleep", "io"})
+    String workload;
+
+    private Launcher launcher;
+    private ServerSocket server;
+
+    @Setup
+    public void setUp() throws IOException {
+        launcher = LauncherFactory.create();
+        server = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        serverPort = server.getLocalPort();
+        Thread.ofVirtual().start(this::serve);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    /**
+     * 1 byte 를 받으면 BLOCKING_MILLIS 뒤에 1 byte 로 응답하는 loopback 서버
+     */
+    private void serve() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread.ofVirtual().start(() -> {
+                    try (socket) {
+                        int b = socket.getInputStream().read();
+                        Thread.sleep(BLOCKING_MILLIS);
+                        socket.getOutputStream().write(b);
+                    } catch (IOException | InterruptedException ignored) {
+                    }
+                });
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Benchmark
+    public long runSuite() {
+        boolean virtual = executor.equals("virtual");
+        Class<?> suite = workload.equals("sleep")
+                ? (virtual ? VirtualSleepTests.class : SleepTests.class)
+                : (virtual ? VirtualIoTests.class : IoTests.class);
+
+        LauncherDiscoveryRequest request = request()
+                .selectors(selectClass(suite))
+                .configurationParameter("junit.jupiter.execution.parallel.enabled", "true")
+                .configurationParameter("junit.jupiter.execution.parallel.config.strategy",
+                        executor.equals("dynamic") ? "dynamic" : "custom")
+                .configurationParameter("junit.jupiter.execution.parallel.config.custom.class",
+                        VirtualThreadConfigurationStrategy.class.getName())
+                .build();
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        launcher.execute(request, listener);
+        if (listener.getSummary().getTotalFailureCount() > 0) {
+            throw new IllegalStateException(listener.getSummary().getFailures().get(0).getException());
+        }
+        return listener.getSummary().getTestsSucceededCount();
+    }
+
+    @Execution(ExecutionMode.CONCURRENT)
+    public static class SleepTests {
+
+        @RepeatedTest(INVOCATIONS)
+        void sleep() throws InterruptedException {
+            Thread.sleep(BLOCKING_MILLIS);
+        }
+    }
+
+    @ExtendWith(VirtualThreadExtension.class)
+    public static class VirtualSleepTests extends SleepTests {
+    }
+
+    @Execution(ExecutionMode.CONCURRENT)
+    public static class IoTests {
+
+        @RepeatedTest(INVOCATIONS)
+        void roundTrip() throws IOException {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverPort)) {
+                OutputStream out = socket.getOutputStream();
+                InputStream in = socket.getInputStream();
+                out.write(7);
+                if (in.read() != 7) {
+                    throw new IOException("unexpected response");
+                }
+            }
+        }
+    }
+
+    @ExtendWith(VirtualThreadExtension.class)
+    public static class VirtualIoTests extends IoTests {
+    }
+}
@@ -0,0 +1,19 @@
+package example;
+
+/**
+ * Calculator bulk 연산 중 다른 구현 (Vector API) 으로 바꿀 수 있는 부분
+ * <p>
+ * 구현은 src/vector 의 VectorKernels 하나이며, Calculator 가 reflection 으로 읽는다.
+ * 그래서 src/main 은 --add-modules jdk.incubator.vector 없이 컴파일된다.
+ */
+interface BulkKernels {
+
+    void add(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length);
+
+    void multiply(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length);
+
+    /**
+     * overflow 시 ArithmeticException
+     */
+    void addExact(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length);
+}
@@ -0,0 +1,332 @@
+package example;
+
+import java.nio.IntBuffer;
+import java.util.OptionalInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+public class Calculator {
+
+    /**
+     * jdk.incubator.vector 모듈이 로드되고 (--add-modules jdk.incubator.vector) src/vector 가 class path 에 있을 때만
+     * Vector API 구현, 아니면 null (scalar)
+     * <p>
+     * -Dcalculator.vector=false 로 scalar 경로를 강제할 수 있다.
+     */
+    static final BulkKernels VECTOR_KERNELS = loadVectorKernels();
+
+    /**
+     * reduction 에서 이 개수 이하 구간은 더 나누지 않고 한 thread 에서 계산한다.
+     */
+    public static final int DEFAULT_SPLIT_THRESHOLD = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+
+    public Calculator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    /**
+     * @param pool           reduction 을 실행할 fork/join pool
+     * @param splitThreshold 분할을 멈추는 구간 크기
+     */
+    public Calculator(ForkJoinPool pool, int splitThreshold) {
+        if (splitThreshold < 1) {
+            throw new IllegalArgumentException("splitThreshold must be positive: " + splitThreshold);
+        }
+        this.pool = pool;
+        this.splitThreshold = splitThreshold;
+    }
+
+    public int add(int a, int b) {
+        return a + b;
+    }
+
+    public int subtract(int a, int b) {
+        return a - b;
+    }
+
+    public int multiply(int a, int b) {
+        return a * b;
+    }
+
+    /**
+     * 0 으로 나누면 ArithmeticException("/ by zero")
+     * <p>
+     * 같은 곳에서 암묵적 예외가 많이 발생하면 JIT 이 message 와 stack trace 가 없는 미리 만든 예외로 바꿔 던지므로
+     * (-XX:+OmitStackTraceInFastThrow) 직접 검사해서 던진다.
+     */
+    public int divide(int a, int b) {
+        if (b == 0) {
+            throw new ArithmeticException("/ by zero");
+        }
+        return a / b;
+    }
+
+    /**
+     * result[i] = a[i] + b[i]
+     */
+    public void add(int[] a, int[] b, int[] result) {
+        checkLength(a.length, b.length, result.length);
+        add(a, 0, b, 0, result, 0, a.length);
+    }
+
+    /**
+     * result[i] = a[i] * b[i]
+     */
+    public void multiply(int[] a, int[] b, int[] result) {
+        checkLength(a.length, b.length, result.length);
+        multiply(a, 0, b, 0, result, 0, a.length);
+    }
+
+    /**
+     * overflow 시 ArithmeticException, 이때 result 에 쓰여진 값은 보장하지 않는다.
+     */
+    public void addExact(int[] a, int[] b, int[] result) {
+        checkLength(a.length, b.length, result.length);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.addExact(a, 0, b, 0, result, 0, a.length);
+            return;
+        }
+        for (int i = 0; i < a.length; i++) {
+            result[i] = Math.addExact(a[i], b[i]);
+        }
+    }
+
+    /**
+     * overflow 시 ArithmeticException, 이때 result 에 쓰여진 값은 보장하지 않는다.
+     */
+    public void multiplyExact(int[] a, int[] b, int[] result) {
+        checkLength(a.length, b.length, result.length);
+        for (int i = 0; i < a.length; i++) {
+            result[i] = Math.multiplyExact(a[i], b[i]);
+        }
+    }
+
+    /**
+     * int + int 는 long 범위를 넘지 않으므로 overflow 가 없다.
+     */
+    public void addWidening(int[] a, int[] b, long[] result) {
+        checkLength(a.length, b.length, result.length);
+        for (int i = 0; i < a.length; i++) {
+            result[i] = (long) a[i] + b[i];
+        }
+    }
+
+    /**
+     * int * int 는 long 범위를 넘지 않으므로 overflow 가 없다.
+     */
+    public void multiplyWidening(int[] a, int[] b, long[] result) {
+        checkLength(a.length, b.length, result.length);
+        for (int i = 0; i < a.length; i++) {
+            result[i] = (long) a[i] * b[i];
+        }
+    }
+
+    /**
+     * 각 buffer 의 position ~ limit 구간을 사용하며, position 은 변경하지 않는다.
+     * heap buffer 는 배열 경로를, direct (off-heap) buffer 는 scalar 경로를 사용한다.
+     */
+    public void add(IntBuffer a, IntBuffer b, IntBuffer result) {
+        int length = a.remaining();
+        checkLength(length, b.remaining(), result.remaining());
+        if (a.hasArray() && b.hasArray() && result.hasArray()) {
+            add(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(),
+                    result.array(), result.arrayOffset() + result.position(), length);
+            return;
+        }
+        int ap = a.position(), bp = b.position(), rp = result.position();
+        for (int i = 0; i < length; i++) {
+            result.put(rp + i, a.get(ap + i) + b.get(bp + i));
+        }
+    }
+
+    /**
+     * 각 buffer 의 position ~ limit 구간을 사용하며, position 은 변경하지 않는다.
+     * heap buffer 는 배열 경로를, direct (off-heap) buffer 는 scalar 경로를 사용한다.
+     */
+    public void multiply(IntBuffer a, IntBuffer b, IntBuffer result) {
+        int length = a.remaining();
+        checkLength(length, b.remaining(), result.remaining());
+        if (a.hasArray() && b.hasArray() && result.hasArray()) {
+            multiply(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(),
+                    result.array(), result.arrayOffset() + result.position(), length);
+            return;
+        }
+        int ap = a.position(), bp = b.position(), rp = result.position();
+        for (int i = 0; i < length; i++) {
+            result.put(rp + i, a.get(ap + i) * b.get(bp + i));
+        }
+    }
+
+    /**
+     * long 누적이므로 배열 길이 범위에서는 overflow 가 없다.
+     */
+    public long sum(int[] values) {
+        return reduce(Reduction.SUM, values);
+    }
+
+    /**
+     * 분할된 구간의 곱이 long 범위를 넘으면 ArithmeticException
+     */
+    public long product(int[] values) {
+        return reduce(Reduction.PRODUCT, values);
+    }
+
+    public OptionalInt min(int[] values) {
+        return values.length == 0 ? OptionalInt.empty() : OptionalInt.of((int) reduce(Reduction.MIN, values));
+    }
+
+    public OptionalInt max(int[] values) {
+        return values.length == 0 ? OptionalInt.empty() : OptionalInt.of((int) reduce(Reduction.MAX, values));
+    }
+
+    /**
+     * stream 은 이 Calculator 의 pool 에서 parallel 로 실행되며, 분할은 stream 의 spliterator 가 결정한다.
+     * long 범위를 넘으면 ArithmeticException
+     */
+    public long sum(IntStream values) {
+        return pool.submit(() -> values.parallel().asLongStream().reduce(0L, Math::addExact)).join();
+    }
+
+    /**
+     * 분할된 구간의 곱이 long 범위를 넘으면 ArithmeticException
+     */
+    public long product(IntStream values) {
+        return pool.submit(() -> values.parallel().asLongStream().reduce(1L, Math::multiplyExact)).join();
+    }
+
+    public OptionalInt min(IntStream values) {
+        return pool.submit(() -> values.parallel().min()).join();
+    }
+
+    public OptionalInt max(IntStream values) {
+        return pool.submit(() -> values.parallel().max()).join();
+    }
+
+    private long reduce(Reduction reduction, int[] values) {
+        ReduceTask task = new ReduceTask(reduction, values, 0, values.length, splitThreshold);
+        return values.length <= splitThreshold ? task.compute() : pool.invoke(task);
+    }
+
+    private enum Reduction {
+        SUM(0L), PRODUCT(1L), MIN(Integer.MAX_VALUE), MAX(Integer.MIN_VALUE);
+
+        private final long identity;
+
+        Reduction(long identity) {
+            this.identity = identity;
+        }
+
+        long combine(long a, long b) {
+            return switch (this) {
+                case SUM -> a + b;
+                case PRODUCT -> Math.multiplyExact(a, b);
+                case MIN -> Math.min(a, b);
+                case MAX -> Math.max(a, b);
+            };
+        }
+    }
+
+    private static final class ReduceTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Reduction reduction;
+        private final int[] values;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        ReduceTask(Reduction reduction, int[] values, int from, int to, int threshold) {
+            this.reduction = reduction;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold) {
+                return leaf();
+            }
+            int middle = (from + to) >>> 1;
+            ReduceTask left = new ReduceTask(reduction, values, from, middle, threshold);
+            left.fork();
+            long right = new ReduceTask(reduction, values, middle, to, threshold).compute();
+            return reduction.combine(left.join(), right);
+        }
+
+        /**
+         * 연산별로 loop 를 분리해 JIT 이 각각 최적화할 수 있게 한다.
+         */
+        private long leaf() {
+            long acc = reduction.identity;
+            switch (reduction) {
+                case SUM -> {
+                    for (int i = from; i < to; i++) {
+                        acc += values[i];
+                    }
+                }
+                case PRODUCT -> {
+                    for (int i = from; i < to; i++) {
+                        acc = Math.multiplyExact(acc, values[i]);
+                    }
+                }
+                case MIN -> {
+                    for (int i = from; i < to; i++) {
+                        acc = Math.min(acc, values[i]);
+                    }
+                }
+                case MAX -> {
+                    for (int i = from; i < to; i++) {
+                        acc = Math.max(acc, values[i]);
+                    }
+                }
+            }
+            return acc;
+        }
+    }
+
+    private static void add(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.add(a, aOffset, b, bOffset, result, resultOffset, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            result[resultOffset + i] = a[aOffset + i] + b[bOffset + i];
+        }
+    }
+
+    private static void multiply(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.multiply(a, aOffset, b, bOffset, result, resultOffset, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            result[resultOffset + i] = a[aOffset + i] * b[bOffset + i];
+        }
+    }
+
+    private static BulkKernels loadVectorKernels() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()
+                || !Boolean.parseBoolean(System.getProperty("calculator.vector", "true"))) {
+            return null;
+        }
+        try {
+            return Class.forName("example.VectorKernels").asSubclass(BulkKernels.class).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static void checkLength(int a, int b, int result) {
+        if (a != b || result < a) {
+            throw new IllegalArgumentException(
+                    String.format("length mismatch: a=%d, b=%d, result=%d", a, b, result));
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package example;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 정수 사칙연산 식을 한 번 parse 해서 MethodHandle tree 로 compile 한다.
+ * <p>
+ * 문법: 정수, 변수 (identifier), + - * /, 괄호, 단항 -
+ * <p>
+ * 각 노드의 연산은 Calculator 메서드를 그대로 호출하므로 0 으로 나누면 ArithmeticException("/ by zero") 이 발생한다.
+ * 변수 값은 식에 처음 등장한 순서대로 evaluate 에 전달한다.
+ * <pre>
+ * Expression expression = Expression.compile("(a + b) * 2 / c");
+ * int result = expression.evaluate(1, 2, 3); // 2
+ * </pre>
+ */
+public final class Expression {
+
+    private static final MethodType EVALUATOR_TYPE = MethodType.methodType(int.class, int[].class);
+    private static final MethodType OPERATOR_TYPE = MethodType.methodType(int.class, int.class, int.class);
+
+    private final String formula;
+    private final List<String> variables;
+    private final Calculator calculator;
+    private final Node root;
+    private final MethodHandle handle;
+
+    private Expression(String formula, Calculator calculator) {
+        this.formula = formula;
+        this.calculator = calculator;
+        Parser parser = new Parser(formula);
+        this.root = parser.parse();
+        this.variables = Collections.unmodifiableList(parser.variables);
+        this.handle = root.compile(new Operators(calculator));
+    }
+
+    public static Expression compile(String formula) {
+        return compile(formula, new Calculator());
+    }
+
+    public static Expression compile(String formula, Calculator calculator) {
+        return new Expression(formula, calculator);
+    }
+
+    /**
+     * compile 된 식을 실행한다.
+     */
+    public int evaluate(int... values) {
+        checkArity(values);
+        try {
+            return (int) handle.invokeExact(values);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * compile 없이 노드마다 Calculator 를 호출하며 식을 해석한다. (비교용)
+     */
+    public int interpret(int... values) {
+        checkArity(values);
+        return root.interpret(calculator, values);
+    }
+
+    /**
+     * (int[])int 타입의 evaluator
+     * <p>
+     * static final 필드에 보관하면 JIT 이 tree 전체를 호출 지점에 inline 할 수 있다.
+     */
+    public MethodHandle toMethodHandle() {
+        return handle;
+    }
+
+    public List<String> variables() {
+        return variables;
+    }
+
+    private void checkArity(int[] values) {
+        if (values.length != variables.size()) {
+            throw new IllegalArgumentException(
+                    String.format("expected %d values for %s but got %d", variables.size(), variables, values.length));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return formula;
+    }
+
+    private interface Node {
+
+        int interpret(Calculator calculator, int[] values);
+
+        MethodHandle compile(Operators operators);
+    }
+
+    private record Constant(int value) implements Node {
+
+        @Override
+        public int interpret(Calculator calculator, int[] values) {
+            return value;
+        }
+
+        @Override
+        public MethodHandle compile(Operators operators) {
+            return MethodHandles.dropArguments(MethodHandles.constant(int.class, value), 0, int[].class);
+        }
+    }
+
+    private record Variable(int index) implements Node {
+
+        @Override
+        public int interpret(Calculator calculator, int[] values) {
+            return values[index];
+        }
+
+        @Override
+        public MethodHandle compile(Operators operators) {
+            return MethodHandles.insertArguments(MethodHandles.arrayElementGetter(int[].class), 1, index);
+        }
+    }
+
+    private record Binary(char operator, Node left, Node right) implements Node {
+
+        @Override
+        public int interpret(Calculator calculator, int[] values) {
+            int l = left.interpret(calculator, values);
+            int r = right.interpret(calculator, values);
+            return switch (operator) {
+                case '+' -> calculator.add(l, r);
+                case '-' -> calculator.subtract(l, r);
+                case '*' -> calculator.multiply(l, r);
+                default -> calculator.divide(l, r);
+            };
+        }
+
+        @Override
+        public MethodHandle compile(Operators operators) {
+            // (int, int)int -> (int[], int[])int -> (int[])int
+            MethodHandle combined = MethodHandles.filterArguments(operators.of(operator),
+                    0, left.compile(operators), right.compile(operators));
+            return MethodHandles.permuteArguments(combined, EVALUATOR_TYPE, 0, 0);
+        }
+    }
+
+    private static final class Operators {
+
+        private final MethodHandle add;
+        private final MethodHandle subtract;
+        private final MethodHandle multiply;
+        private final MethodHandle divide;
+
+        Operators(Calculator calculator) {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            try {
+                add = lookup.findVirtual(Calculator.class, "add", OPERATOR_TYPE).bindTo(calculator);
+                subtract = lookup.findVirtual(Calculator.class, "subtract", OPERATOR_TYPE).bindTo(calculator);
+                multiply = lookup.findVirtual(Calculator.class, "multiply", OPERATOR_TYPE).bindTo(calculator);
+                divide = lookup.findVirtual(Calculator.class, "divide", OPERATOR_TYPE).bindTo(calculator);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        MethodHandle of(char operator) {
+            return switch (operator) {
+                case '+' -> add;
+                case '-' -> subtract;
+                case '*' -> multiply;
+                default -> divide;
+            };
+        }
+    }
+
+    /**
+     * expression := term (('+' | '-') term)*
+     * term       := factor (('*' | '/') factor)*
+     * factor     := number | identifier | '(' expression ')' | '-' factor
+     */
+    private static final class Parser {
+
+        private final String formula;
+        private final List<String> variables = new ArrayList<>();
+        private int position;
+
+        Parser(String formula) {
+            this.formula = formula;
+        }
+
+        Node parse() {
+            Node node = expression();
+            skipWhitespace();
+            if (position < formula.length()) {
+                throw error("unexpected '" + formula.charAt(position) + "'");
+            }
+            return node;
+        }
+
+        private Node expression() {
+            Node node = term();
+            for (char c = peek(); c == '+' || c == '-'; c = peek()) {
+                position++;
+                node = new Binary(c, node, term());
+            }
+            return node;
+        }
+
+        private Node term() {
+            Node node = factor();
+            for (char c = peek(); c == '*' || c == '/'; c = peek()) {
+                position++;
+                node = new Binary(c, node, factor());
+            }
+            return node;
+        }
+
+        private Node factor() {
+            char c = peek();
+            if (c == '(') {
+                position++;
+                Node node = expression();
+                if (peek() != ')') {
+                    throw error("expected ')'");
+                }
+                position++;
+                return node;
+            }
+            if (c == '-') {
+                position++;
+                return new Binary('-', new Constant(0), factor());
+            }
+            if (Character.isDigit(c)) {
+                int start = position;
+                while (position < formula.length() && Character.isDigit(formula.charAt(position))) {
+                    position++;
+                }
+                try {
+                    return new Constant(Integer.parseInt(formula.substring(start, position)));
+                } catch (NumberFormatException e) {
+                    throw error("integer out of range");
+                }
+            }
+            if (Character.isJavaIdentifierStart(c)) {
+                int start = position;
+                while (position < formula.length() && Character.isJavaIdentifierPart(formula.charAt(position))) {
+                    position++;
+                }
+                String name = formula.substring(start, position);
+                int index = variables.indexOf(name);
+                if (index < 0) {
+                    index = variables.size();
+                    variables.add(name);
+                }
+                return new Variable(index);
+            }
+            throw error(position < formula.length() ? "unexpected '" + c + "'" : "unexpected end of formula");
+        }
+
+        private char peek() {
+            skipWhitespace();
+            return position < formula.length() ? formula.charAt(position) : '\0';
+        }
+
+        private void skipWhitespace() {
+            while (position < formula.length() && Character.isWhitespace(formula.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(String.format("%s at %d: %s", message, position, formula));
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package example;
+
 import java.time.LocalDate;
 
 public class Idol {
@@ -36,6 +38,15 @@ public class Idol {
             return new Idol(this);
         }
 
+        /**
+         * Idol 객체를 만들지 않고 store 에 바로 추가한다.
+         *
+         * @return store 안의 index
+         */
+        public int appendTo(IdolStore store) {
+            return store.add(memberName, age, isLeader, birthDate);
+        }
+
     }
 
     public Idol(Builder builder) {
@@ -54,6 +65,14 @@ public class Idol {
         return age;
     }
 
+    public int getIsLeader() {
+        return isLeader;
+    }
+
+    public LocalDate getBirthDate() {
+        return birthDate;
+    }
+
     @Override
     public String toString() {
         return "Idol{" +
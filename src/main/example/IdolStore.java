@@ -0,0 +1,216 @@
+package example;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Idol 을 객체 대신 column 배열로 보관한다. (struct-of-arrays)
+ * <p>
+ * - memberName : dictionary encoding (같은 이름은 한 번만 저장하고 int id 로 참조)
+ * <br>- age : int[]
+ * <br>- isLeader : BitSet (0 이 아니면 leader, 다시 읽을 때는 1)
+ * <br>- birthDate : epoch day int[] (없으면 NO_BIRTH_DATE)
+ * <p>
+ * thread-safe 하지 않다.
+ */
+public class IdolStore {
+
+    public static final int NO_BIRTH_DATE = Integer.MIN_VALUE;
+
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private String[] names = new String[16];
+    private final BitSet leaders = new BitSet();
+
+    private int[] nameColumn;
+    private int[] ageColumn;
+    private int[] birthDateColumn;
+    private int size;
+
+    public IdolStore() {
+        this(16);
+    }
+
+    public IdolStore(int initialCapacity) {
+        nameColumn = new int[initialCapacity];
+        ageColumn = new int[initialCapacity];
+        birthDateColumn = new int[initialCapacity];
+    }
+
+    /**
+     * @return 추가된 index
+     */
+    public int add(Idol idol) {
+        return add(idol.getMemberName(), idol.getAge(), idol.getIsLeader(), idol.getBirthDate());
+    }
+
+    /**
+     * @return 추가된 index
+     */
+    public int add(String memberName, int age, int isLeader, LocalDate birthDate) {
+        ensureCapacity(size + 1);
+        int index = size++;
+        nameColumn[index] = nameId(memberName);
+        ageColumn[index] = age;
+        birthDateColumn[index] = birthDate == null ? NO_BIRTH_DATE : Math.toIntExact(birthDate.toEpochDay());
+        leaders.set(index, isLeader != 0);
+        return index;
+    }
+
+    /**
+     * builder 들을 Idol 객체 생성 없이 추가한다.
+     */
+    public void addAll(Iterable<Idol.Builder> builders) {
+        for (Idol.Builder builder : builders) {
+            builder.appendTo(this);
+        }
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > ageColumn.length) {
+            int newCapacity = Math.max(capacity, ageColumn.length + (ageColumn.length >> 1) + 1);
+            nameColumn = Arrays.copyOf(nameColumn, newCapacity);
+            ageColumn = Arrays.copyOf(ageColumn, newCapacity);
+            birthDateColumn = Arrays.copyOf(birthDateColumn, newCapacity);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 서로 다른 이름 수
+     */
+    public int distinctNames() {
+        return nameIds.size();
+    }
+
+    public String getMemberName(int index) {
+        return names[nameColumn[checkIndex(index)]];
+    }
+
+    public int getAge(int index) {
+        return ageColumn[checkIndex(index)];
+    }
+
+    public int getIsLeader(int index) {
+        return leaders.get(checkIndex(index)) ? 1 : 0;
+    }
+
+    /**
+     * @return epoch day, 없으면 NO_BIRTH_DATE
+     */
+    public int getBirthEpochDay(int index) {
+        return birthDateColumn[checkIndex(index)];
+    }
+
+    public LocalDate getBirthDate(int index) {
+        int epochDay = getBirthEpochDay(index);
+        return epochDay == NO_BIRTH_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    public int leaderCount() {
+        return leaders.cardinality();
+    }
+
+    /**
+     * index 의 Idol 객체를 새로 만든다.
+     */
+    public Idol get(int index) {
+        return new Idol.Builder(getMemberName(index), getAge(index))
+                .isLeader(getIsLeader(index))
+                .birthDate(getBirthDate(index))
+                .build();
+    }
+
+    /**
+     * index 0 을 가리키는 flyweight view, moveTo 로 다른 row 를 가리키게 한다.
+     */
+    public View view() {
+        return new View();
+    }
+
+    /**
+     * 하나의 view 를 재사용하며 모든 row 를 순회한다. (consumer 밖으로 view 를 보관하지 말 것)
+     */
+    public void forEach(Consumer<View> action) {
+        View view = new View();
+        for (int i = 0; i < size; i++) {
+            action.accept(view.moveTo(i));
+        }
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    private int nameId(String memberName) {
+        Integer id = nameIds.get(memberName);
+        if (id == null) {
+            id = nameIds.size();
+            if (id == names.length) {
+                names = Arrays.copyOf(names, names.length * 2);
+            }
+            names[id] = memberName;
+            nameIds.put(memberName, id);
+        }
+        return id;
+    }
+
+    /**
+     * store 의 한 row 를 Idol 과 같은 getter 로 읽는 flyweight
+     */
+    public class View {
+
+        private int index;
+
+        private View() {
+        }
+
+        public View moveTo(int index) {
+            this.index = checkIndex(index);
+            return this;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String getMemberName() {
+            return IdolStore.this.getMemberName(index);
+        }
+
+        public int getAge() {
+            return IdolStore.this.getAge(index);
+        }
+
+        public int getIsLeader() {
+            return IdolStore.this.getIsLeader(index);
+        }
+
+        public LocalDate getBirthDate() {
+            return IdolStore.this.getBirthDate(index);
+        }
+
+        public Idol toIdol() {
+            return get(index);
+        }
+
+        @Override
+        public String toString() {
+            return "Idol{" +
+                    "memberName='" + getMemberName() + '\'' +
+                    ", age=" + getAge() +
+                    ", isLeader=" + getIsLeader() +
+                    ", birthDate=" + getBirthDate() +
+                    '}';
+        }
+    }
+}
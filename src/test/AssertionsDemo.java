@@ -1,3 +1,6 @@
+import common.VirtualAssertions;
+import example.Calculator;
+import example.Idol;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -98,4 +101,30 @@ public class AssertionsDemo {
         });
     }
 
+    @Test
+    void timeoutNotExceededOnVirtualThread() {
+        String actualResult = VirtualAssertions.assertTimeoutPreemptively(ofMinutes(2), () -> {
+            return "a result";
+        });
+        assertEquals("a result", actualResult);
+    }
+
+    @Test
+    void guardedAssertionsInTightLoop() {
+        // a virtual thread per call instead of a platform thread
+        for (int i = 0; i < 10_000; i++) {
+            int a = i;
+            VirtualAssertions.assertTimeoutPreemptively(ofMillis(100), () -> assertEquals(a * 2, cal.multiply(a, 2)));
+        }
+    }
+
+    @Test
+    void timeoutExceededWithPreemptiveTerminationOnVirtualThread() {
+        // The following assertion fails with an error message similar to:
+        // execution timed out after 10 ms
+        VirtualAssertions.assertTimeoutPreemptively(ofMillis(10), () -> {
+            new CountDownLatch(1).await();
+        });
+    }
+
 }
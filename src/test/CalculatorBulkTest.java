@@ -0,0 +1,92 @@
+import example.Calculator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalculatorBulkTest {
+
+    private final Calculator cal = new Calculator();
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 7, 64, 1001})
+    void bulkMatchesScalar(int length) {
+        int[] a = randomInts(length, 1);
+        int[] b = randomInts(length, 2);
+        int[] sum = new int[length];
+        int[] product = new int[length];
+        long[] wideSum = new long[length];
+        long[] wideProduct = new long[length];
+
+        cal.add(a, b, sum);
+        cal.multiply(a, b, product);
+        cal.addWidening(a, b, wideSum);
+        cal.multiplyWidening(a, b, wideProduct);
+
+        for (int i = 0; i < length; i++) {
+            assertEquals(cal.add(a[i], b[i]), sum[i]);
+            assertEquals(cal.multiply(a[i], b[i]), product[i]);
+            assertEquals((long) a[i] + b[i], wideSum[i]);
+            assertEquals((long) a[i] * b[i], wideProduct[i]);
+        }
+    }
+
+    @Test
+    void exactThrowsOnOverflow() {
+        int[] a = new int[100];
+        int[] b = new int[100];
+        a[97] = Integer.MAX_VALUE;
+        b[97] = 1;
+
+        assertThrows(ArithmeticException.class, () -> cal.addExact(a, b, new int[100]));
+        int[] twos = new int[100];
+        twos[97] = 2;
+        assertThrows(ArithmeticException.class, () -> cal.multiplyExact(a, twos, new int[100]));
+
+        b[97] = -1;
+        int[] result = new int[100];
+        cal.addExact(a, b, result);
+        assertEquals(Integer.MAX_VALUE - 1, result[97]);
+    }
+
+    @Test
+    void lengthMismatch() {
+        assertThrows(IllegalArgumentException.class, () -> cal.add(new int[3], new int[2], new int[3]));
+        assertThrows(IllegalArgumentException.class, () -> cal.add(new int[3], new int[3], new int[2]));
+    }
+
+    @Test
+    void heapAndDirectBuffers() {
+        int[] a = randomInts(33, 3);
+        int[] b = randomInts(33, 4);
+
+        IntBuffer heap = IntBuffer.allocate(34).position(1);
+        cal.add(IntBuffer.wrap(a), IntBuffer.wrap(b), heap);
+
+        IntBuffer da = direct(a);
+        IntBuffer db = direct(b);
+        IntBuffer direct = ByteBuffer.allocateDirect(33 * Integer.BYTES).asIntBuffer();
+        cal.multiply(da, db, direct);
+
+        assertEquals(1, heap.position());
+        for (int i = 0; i < a.length; i++) {
+            assertEquals(a[i] + b[i], heap.get(i + 1));
+            assertEquals(a[i] * b[i], direct.get(i));
+        }
+    }
+
+    private static IntBuffer direct(int[] values) {
+        IntBuffer buffer = ByteBuffer.allocateDirect(values.length * Integer.BYTES).asIntBuffer();
+        buffer.put(values).flip();
+        return buffer;
+    }
+
+    private static int[] randomInts(int length, long seed) {
+        return new SplittableRandom(seed).ints(length).toArray();
+    }
+}
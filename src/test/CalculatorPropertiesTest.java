@@ -0,0 +1,50 @@
+import anno.PropertyTest;
+import common.IntGenerator;
+import common.PropertyCheck;
+import example.Calculator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calculator 의 성질을 무작위 입력 수백만 개로 확인한다. (@ValueSource / @MethodSource 는 입력마다 invocation 이 생긴다)
+ * <p>
+ * int 연산은 overflow 시 wrap-around 하므로 아래 성질은 모든 int 에서 성립한다.
+ */
+public class CalculatorPropertiesTest {
+
+    private final Calculator cal = new Calculator();
+
+    @PropertyTest
+    void addIsCommutative(PropertyCheck check) {
+        check.forAll(IntGenerator.any(), IntGenerator.any(), (a, b) -> assertEquals(cal.add(a, b), cal.add(b, a)));
+    }
+
+    @PropertyTest
+    void multiplyIsCommutative(PropertyCheck check) {
+        check.forAll(IntGenerator.any(), IntGenerator.any(), (a, b) -> assertEquals(cal.multiply(a, b), cal.multiply(b, a)));
+    }
+
+    @PropertyTest
+    void subtractUndoesAdd(PropertyCheck check) {
+        check.forAll(IntGenerator.any(), IntGenerator.any(), (a, b) -> {
+            assertEquals(a, cal.subtract(cal.add(a, b), b));
+            assertEquals(a, cal.add(cal.subtract(a, b), b));
+        });
+    }
+
+    @PropertyTest
+    void divideTruncatesTowardZero(PropertyCheck check) {
+        check.forAll(IntGenerator.any(), IntGenerator.any().filter(b -> b != 0), (a, b) -> {
+            int quotient = cal.divide(a, b);
+            assertEquals(a, cal.add(cal.multiply(quotient, b), a % b));
+        });
+    }
+
+    @PropertyTest(tries = 100_000)
+    void divideByZeroThrows(PropertyCheck check) {
+        check.forAll(IntGenerator.any(), a -> {
+            ArithmeticException exception = assertThrows(ArithmeticException.class, () -> cal.divide(a, 0));
+            assertEquals("/ by zero", exception.getMessage());
+        });
+    }
+}
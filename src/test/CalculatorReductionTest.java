@@ -0,0 +1,74 @@
+import example.Calculator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalculatorReductionTest {
+
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    // 작은 threshold 로 분할 경로까지 확인
+    private final Calculator cal = new Calculator(pool, 16);
+
+    @AfterAll
+    static void shutdown() {
+        pool.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 15, 16, 17, 1000, 100_000})
+    void reductionsMatchSequential(int size) {
+        int[] values = new SplittableRandom(size).ints(size).toArray();
+
+        assertEquals(IntStream.of(values).asLongStream().sum(), cal.sum(values));
+        assertEquals(IntStream.of(values).min(), cal.min(values));
+        assertEquals(IntStream.of(values).max(), cal.max(values));
+        assertEquals(IntStream.of(values).asLongStream().sum(), cal.sum(IntStream.of(values)));
+        assertEquals(IntStream.of(values).min(), cal.min(IntStream.of(values)));
+        assertEquals(IntStream.of(values).max(), cal.max(IntStream.of(values)));
+    }
+
+    @Test
+    void sumDoesNotOverflowInt() {
+        int[] values = IntStream.generate(() -> Integer.MAX_VALUE).limit(1000).toArray();
+
+        assertEquals(1000L * Integer.MAX_VALUE, cal.sum(values));
+    }
+
+    @Test
+    void product() {
+        int[] values = IntStream.rangeClosed(1, 20).toArray();
+
+        assertEquals(2432902008176640000L, cal.product(values));
+        assertEquals(2432902008176640000L, cal.product(IntStream.of(values)));
+        assertEquals(1L, cal.product(new int[0]));
+    }
+
+    @Test
+    void productOverflow() {
+        int[] values = IntStream.rangeClosed(1, 21).toArray();
+
+        assertThrows(ArithmeticException.class, () -> cal.product(values));
+        assertThrows(ArithmeticException.class, () -> cal.product(IntStream.of(values)));
+    }
+
+    @Test
+    void empty() {
+        assertEquals(0L, cal.sum(new int[0]));
+        assertEquals(OptionalInt.empty(), cal.min(new int[0]));
+        assertEquals(OptionalInt.empty(), cal.max(IntStream.empty()));
+    }
+
+    @Test
+    void invalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new Calculator(pool, 0));
+    }
+}
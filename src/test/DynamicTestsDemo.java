@@ -1,3 +1,5 @@
+import common.StreamingDynamicTests;
+import example.Idol;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.function.ThrowingConsumer;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -60,5 +62,19 @@ public class DynamicTestsDemo {
         return DynamicTest.stream(inputGenerator, displayNameGenerator, testExecutor);
     }
 
+    @TestFactory
+    Stream<DynamicTest> generateRandomTestsInBatches() {
+        // 10,000 cases -> 10 nodes, reproducible with -Djunit.dynamic.seed=<seed in the failure message>
+        // millions of cases keep the same number of nodes per batch size, at the cost of run time
+        return StreamingDynamicTests.random(10_000, 1_000,
+                random -> random.nextInt(100), input -> assertTrue(input >= 0 && input < 100));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> generateRandomNumberOfTestsFromIteratorInBatches() {
+        Iterator<Integer> inputGenerator = new Random().ints(0, 100).takeWhile(i -> i % 7 != 0).iterator();
+
+        return StreamingDynamicTests.batched(inputGenerator, input -> "input: " + input, input -> assertTrue(input % 7 != 0), 10);
+    }
 
 }
@@ -0,0 +1,61 @@
+import example.Calculator;
+import example.Expression;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionTest {
+
+    private final Calculator cal = new Calculator();
+
+    @ParameterizedTest
+    @CsvSource({
+            "1 + 2 * 3, 7",
+            "(1 + 2) * 3, 9",
+            "10 - 4 - 3, 3",
+            "100 / 10 / 5, 2",
+            "-(2 + 3) * -2, 10",
+            "7 / 2, 3",
+    })
+    void constantFormulas(String formula, int expected) {
+        Expression expression = Expression.compile(formula);
+
+        assertEquals(expected, expression.evaluate());
+        assertEquals(expected, expression.interpret());
+    }
+
+    @Test
+    void variablesInOrderOfAppearance() {
+        Expression expression = Expression.compile("(b + a) * b - c / 2");
+
+        assertEquals(List.of("b", "a", "c"), expression.variables());
+        assertEquals(cal.subtract(cal.multiply(cal.add(3, 1), 3), cal.divide(9, 2)), expression.evaluate(3, 1, 9));
+        assertEquals(expression.interpret(3, 1, 9), expression.evaluate(3, 1, 9));
+    }
+
+    @Test
+    void divideByZero() {
+        Expression expression = Expression.compile("a / (b - b)");
+
+        Exception compiled = assertThrows(ArithmeticException.class, () -> expression.evaluate(1, 2));
+        Exception interpreted = assertThrows(ArithmeticException.class, () -> expression.interpret(1, 2));
+        assertEquals("/ by zero", compiled.getMessage());
+        assertEquals("/ by zero", interpreted.getMessage());
+    }
+
+    @Test
+    void wrongNumberOfValues() {
+        assertThrows(IllegalArgumentException.class, () -> Expression.compile("a + b").evaluate(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "1 +", "(1 + 2", "1 2", "a % b", "99999999999"})
+    void invalidFormulas(String formula) {
+        assertThrows(IllegalArgumentException.class, () -> Expression.compile(formula));
+    }
+}
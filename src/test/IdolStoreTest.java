@@ -0,0 +1,75 @@
+import example.Idol;
+import example.IdolStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdolStoreTest {
+
+    private final Idol karina = new Idol.Builder("카리나", 20).isLeader(1).birthDate(LocalDate.of(2000, 4, 11)).build();
+    private final Idol minzi = new Idol.Builder("민지", 19).build();
+
+    @Test
+    void viewReadsLikeIdol() {
+        IdolStore store = new IdolStore(1);
+        store.add(karina);
+        store.add(minzi);
+
+        IdolStore.View view = store.view().moveTo(0);
+        assertEquals("카리나", view.getMemberName());
+        assertEquals(20, view.getAge());
+        assertEquals(1, view.getIsLeader());
+        assertEquals(LocalDate.of(2000, 4, 11), view.getBirthDate());
+        assertEquals(karina.toString(), view.toString());
+
+        view.moveTo(1);
+        assertEquals(minzi.toString(), view.toString());
+        assertNull(view.getBirthDate());
+        assertEquals(IdolStore.NO_BIRTH_DATE, store.getBirthEpochDay(1));
+    }
+
+    @Test
+    void bulkBuildersWithoutIdolObjects() {
+        List<Idol.Builder> builders = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            builders.add(new Idol.Builder(i % 2 == 0 ? "하니" : "해린", 18 + i % 5).isLeader(i % 100 == 0 ? 1 : 0));
+        }
+
+        IdolStore store = new IdolStore();
+        store.addAll(builders);
+
+        assertEquals(10_000, store.size());
+        assertEquals(2, store.distinctNames());
+        assertEquals(100, store.leaderCount());
+        assertEquals("해린", store.getMemberName(9_999));
+
+        int index = new Idol.Builder("민지", 19).appendTo(store);
+        assertEquals(10_000, index);
+        assertEquals(minzi.toString(), store.view().moveTo(index).toString());
+    }
+
+    @Test
+    void forEachReusesView() {
+        IdolStore store = new IdolStore();
+        store.add(karina);
+        store.add(minzi);
+
+        List<String> names = new ArrayList<>();
+        store.forEach(view -> names.add(view.getMemberName()));
+
+        assertEquals(List.of("카리나", "민지"), names);
+        assertEquals(karina.toString(), store.get(0).toString());
+    }
+
+    @Test
+    void indexOutOfBounds() {
+        IdolStore store = new IdolStore();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getAge(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.view().moveTo(0));
+    }
+}
@@ -0,0 +1,29 @@
+import common.LongestFirstMethodOrderer;
+import common.TimingExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * history 파일은 opt-in 이므로 기본 실행에서는 항상 이름 순 (fast, medium, slow) 이다.
+ * --config junit.timing.history=test-history.tsv 로 실행하면 TimingExtension 이 그 파일을 남기고,
+ * 같은 설정으로 다시 실행할 때부터 오래 걸린 순 (slow, medium, fast) 으로 실행된다.
+ */
+@ExtendWith(TimingExtension.class)
+@TestMethodOrder(LongestFirstMethodOrderer.class)
+class LongestFirstOrderDemo {
+
+    @Test
+    void fast() {
+    }
+
+    @Test
+    void medium() throws InterruptedException {
+        Thread.sleep(50);
+    }
+
+    @Test
+    void slow() throws InterruptedException {
+        Thread.sleep(100);
+    }
+}
@@ -1,3 +1,5 @@
+import anno.MappedCsvSource;
+import anno.ParallelParameterizedTest;
 import org.junit.jupiter.api.extension.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.*;
@@ -7,6 +9,7 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -126,6 +129,17 @@ public class ParamTest {
         return IntStream.range(0, 20).skip(10);
     }
 
+    @ParallelParameterizedTest
+    @MethodSource("largeRange")
+    void testWithParallelParameterizedTest(long argument) throws InterruptedException {
+        Thread.sleep(1);
+        assertTrue(argument >= 0);
+    }
+
+    static LongStream largeRange() {
+        return LongStream.range(0, 1000);
+    }
+
     @RegisterExtension // IntegerResolver 확장
     static final IntegerResolver integerResolver = new IntegerResolver();
 
@@ -198,6 +212,30 @@ public class ParamTest {
         assertNotNull(group);
     }
 
+    @ParameterizedTest
+    @MappedCsvSource(resources = "resource/Idol.csv", numLinesToSkip = 1)
+    void testWithMappedCsvSource(String name, String group) {
+        logger.info(name + " " + group);
+        assertNotNull(name);
+        assertNotNull(group);
+    }
+
+    @ParameterizedTest
+    @MappedCsvSource(resources = "resource/Idol.csv", numLinesToSkip = 1, snapshot = true)
+    void testWithMappedCsvSourceSnapshot(String name, String group) {
+        logger.info(name + " " + group);
+        assertNotNull(name);
+        assertNotNull(group);
+    }
+
+    @ParameterizedTest(name = "[{index}] {arguments}")
+    @MappedCsvSource(resources = "resource/Idol.csv", useHeadersInDisplayName = true)
+    void testWithMappedCsvSourceWithHeader(String name, String group) {
+        logger.info(name + " " + group);
+        assertNotNull(name);
+        assertNotNull(group);
+    }
+
     @ParameterizedTest
     @ArgumentsSource(IdolArgumentProvider.class)
     void testWithArgumentsSource(String name) {
@@ -1,9 +1,12 @@
+import common.TimingExtension;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+@ExtendWith(TimingExtension.class)
 public class RepeatedTestsDemo {
 
     private Logger logger = Logger.getLogger(RepeatedTestsDemo.class.getName());
@@ -1,52 +1,49 @@
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
+import anno.PropertyLock;
+import anno.RestoreSystemProperties;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
-import org.junit.jupiter.api.parallel.ResourceLock;
-
-import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.parallel.ResourceAccessMode.READ;
-import static org.junit.jupiter.api.parallel.ResourceAccessMode.READ_WRITE;
-import static org.junit.jupiter.api.parallel.Resources.SYSTEM_PROPERTIES;
 
 @Execution(ExecutionMode.CONCURRENT)
+@RestoreSystemProperties
 public class SharedResourcesDemo {
 
-    private Properties backup;
-
-    @BeforeEach
-    void backup() {
-        backup = new Properties();
-        backup.putAll(System.getProperties());
-    }
-
-    @AfterEach
-    void restore() {
-        System.setProperties(backup);
-    }
-
-
     @Test
-    @ResourceLock(value = SYSTEM_PROPERTIES, mode = READ)
+    @PropertyLock(value = "my.prop", mode = READ)
     void customPropertyIsNotSetByDefault() {
         assertNull(System.getProperty("my.prop"));
     }
 
     @Test
-    @ResourceLock(value = SYSTEM_PROPERTIES, mode = READ_WRITE)
+    @PropertyLock("my.prop")
     void canSetCustomPropertyToApple() {
         System.setProperty("my.prop", "apple");
         assertEquals("apple", System.getProperty("my.prop"));
     }
 
     @Test
-    @ResourceLock(value = SYSTEM_PROPERTIES, mode = READ_WRITE)
+    @PropertyLock("my.prop")
     void canSetCustomPropertyToBanana() {
         System.setProperty("my.prop", "banana");
         assertEquals("banana", System.getProperty("my.prop"));
     }
+
+    @Test
+    @PropertyLock("other.prop")
+    void canSetOtherPropertyInParallel() {
+        // runs in parallel with the my.prop tests
+        System.setProperty("other.prop", "cherry");
+        assertEquals("cherry", System.getProperty("other.prop"));
+    }
+
+    @Test
+    @PropertyLock(PropertyLock.ALL)
+    void noPropertyLeaksBetweenTests() {
+        assertNull(System.getProperty("my.prop"));
+        assertNull(System.getProperty("other.prop"));
+    }
 }
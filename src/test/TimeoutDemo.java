@@ -1,3 +1,4 @@
+import anno.WatchdogTimeout;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
@@ -23,4 +24,16 @@ public class TimeoutDemo {
     void failsIfExecutionTimeExceeds500MillisecondsWithSeparateThread() {
         // this test will be executed in a separate thread
     }
+
+    @Test
+    @WatchdogTimeout(value = 500, unit = TimeUnit.MILLISECONDS)
+    void failsIfExecutionTimeExceeds500MillisecondsWithWatchdog() {
+        // deadline is watched by a shared timing wheel, no thread per test
+    }
+
+    @Test
+    @WatchdogTimeout(value = 100, unit = TimeUnit.MILLISECONDS)
+    void interruptedByWatchdog() throws InterruptedException {
+        Thread.sleep(10_000); // interrupted after about 100 ms, fails with TimeoutException
+    }
 }
@@ -0,0 +1,36 @@
+import common.VirtualThreadExtension;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Execution(ExecutionMode.CONCURRENT)
+@ExtendWith(VirtualThreadExtension.class)
+public class VirtualThreadDemo {
+
+    private static int counter;
+
+    @Test
+    void runsOnVirtualThread() {
+        assertTrue(Thread.currentThread().isVirtual());
+    }
+
+    @RepeatedTest(20)
+    void sleepingTestsRunOnVirtualThreads() throws InterruptedException {
+        assertTrue(Thread.currentThread().isVirtual());
+        Thread.sleep(50);
+    }
+
+    @RepeatedTest(10)
+    @ResourceLock("VirtualThreadDemo.counter")
+    void resourceLockIsHonored() throws InterruptedException {
+        int before = counter;
+        Thread.sleep(5);
+        counter = before + 1;
+        assertEquals(before + 1, counter);
+    }
+}
@@ -0,0 +1,60 @@
+package anno;
+
+import common.MappedCsvArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @CsvFileSource 와 같은 옵션을 가지지만, 파일을 memory-map 해서 row 를 필요할 때마다 parse 한다.
+ * 파일 전체를 heap 에 올리지 않으므로 수 GB 짜리 fixture 에도 사용할 수 있다.
+ * <p>
+ * resources 는 classpath 상의 파일이어야 한다. (jar 내부 resource 는 memory-map 할 수 없음)
+ * delimiter, quoteCharacter 는 ASCII 문자, encoding 은 ASCII 호환 charset (UTF-8 등) 만 지원한다.
+ * '#' 으로 시작하는 줄과 빈 줄은 건너뛴다.
+ */
+@Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ArgumentsSource(MappedCsvArgumentsProvider.class)
+public @interface MappedCsvSource {
+
+    String[] resources() default {};
+
+    String[] files() default {};
+
+    String encoding() default "UTF-8";
+
+    /**
+     * header 를 포함해 건너뛸 row 수
+     */
+    int numLinesToSkip() default 0;
+
+    /**
+     * numLinesToSkip 다음 첫 row 를 header 로 사용해 "header = value" 형태의 display name 을 만든다.
+     */
+    boolean useHeadersInDisplayName() default false;
+
+    char delimiter() default ',';
+
+    char quoteCharacter() default '"';
+
+    /**
+     * 따옴표로 감싼 빈 값 ("") 을 대체할 값, 따옴표 없는 빈 값은 null 이다.
+     */
+    String emptyValue() default "";
+
+    String[] nullValues() default {};
+
+    boolean ignoreLeadingAndTrailingWhitespace() default true;
+
+    /**
+     * true 면 parse 결과를 파일 내용 hash 로 구분되는 binary snapshot 으로 저장하고, 다음 실행부터 snapshot 을 읽는다.
+     * 저장 위치는 configuration parameter junit.csv.snapshot.dir (default: java.io.tmpdir/junit-csv-snapshots)
+     */
+    boolean snapshot() default false;
+}
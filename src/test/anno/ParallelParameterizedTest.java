@@ -0,0 +1,25 @@
+package anno;
+
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 각 invocation 을 fork/join pool 에서 병렬로 실행하는 @ParameterizedTest
+ * <p>
+ * junit-platform.properties 의 junit.jupiter.execution.parallel.enabled = true 가 필요하다.
+ * argument stream 은 순서대로 읽혀 [index] display name 이 정해진 뒤 invocation 단위로 pool 에 fork 되고,
+ * 남는 worker 가 나머지 invocation 을 가져가 (work-stealing) 실행한다.
+ * row 끼리 독립적인 경우에만 사용할 것
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ParameterizedTest
+@Execution(ExecutionMode.CONCURRENT)
+public @interface ParallelParameterizedTest {
+}
@@ -0,0 +1,37 @@
+package anno;
+
+import common.PropertyLockExtension;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @ResourceLock(SYSTEM_PROPERTIES) 대신 system property key 단위로 lock 을 건다.
+ * 서로 다른 key 를 쓰는 test 는 병렬로 실행되고, ALL 은 전체 property 에 대한 lock 이다.
+ * <p>
+ * lock 은 @BeforeEach 전에 잡고, @AfterEach 와 @RestoreSystemProperties 의 복원이 끝난 뒤 놓는다.
+ * 같은 test 에서 @ResourceLock(SYSTEM_PROPERTIES) 와 섞어 쓰지 않는다.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Repeatable(PropertyLocks.class)
+@ExtendWith(PropertyLockExtension.class)
+public @interface PropertyLock {
+
+    /**
+     * 전체 system properties (System.getProperties() 를 순회하거나 통째로 바꾸는 test)
+     * READ 이면 key 를 읽기만 하는 test 와는 함께 실행된다.
+     */
+    String ALL = "*";
+
+    String value();
+
+    ResourceAccessMode mode() default ResourceAccessMode.READ_WRITE;
+}
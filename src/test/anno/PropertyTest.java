@@ -0,0 +1,31 @@
+package anno;
+
+import common.PropertyCheck;
+import common.PropertyCheckExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * PropertyCheck parameter 를 받는 @Test. check.forAll(...) 한 번이 tries 개의 case 를 병렬로 실행한다.
+ * <p>
+ * seed 는 configuration parameter (또는 system property) junit.property.seed 로 고정할 수 있고,
+ * 없으면 임의의 값을 쓴다. 실패 message 와 report entry (property) 에 seed 가 남는다.
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Test
+@ExtendWith(PropertyCheckExtension.class)
+public @interface PropertyTest {
+
+    /**
+     * forAll 한 번에 실행할 case 수
+     */
+    int tries() default PropertyCheck.DEFAULT_TRIES;
+}
@@ -0,0 +1,23 @@
+package anno;
+
+import common.SystemPropertiesExtension;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * test 가 바꾼 system property 를 test 가 끝난 뒤 되돌린다.
+ * 전체 Properties 를 복사하지 않고 바뀐 key 의 이전 값만 기록한다.
+ * <p>
+ * 병렬 실행에서 같은 key 를 바꾸는 test 끼리는 따로 lock 을 걸어야 한다.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(SystemPropertiesExtension.class)
+public @interface RestoreSystemProperties {
+}
@@ -0,0 +1,28 @@
+package anno;
+
+import common.WatchdogExtension;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Timeout 처럼 test 실행 시간을 제한하지만, 호출마다 thread 를 만들지 않고 공유 timing wheel 이 deadline 을 감시한다.
+ * 시간을 넘기면 test thread 를 interrupt 하고 TimeoutException 으로 실패시킨다.
+ * <p>
+ * class 에 붙이면 모든 test method 에 적용되고, method 에 붙인 값이 우선한다.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(WatchdogExtension.class)
+public @interface WatchdogTimeout {
+
+    long value();
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
@@ -0,0 +1,13 @@
+package common;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * CSV row iterator, 다 읽지 않고 닫을 수 있다.
+ */
+interface CsvRows extends Iterator<String[]>, Closeable {
+
+    @Override
+    void close();
+}
@@ -0,0 +1,283 @@
+package common;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.NoSuchElementException;
+
+/**
+ * CSV 파일을 한 번 parse 한 결과를 binary snapshot 으로 저장하고, 다음 실행부터는 snapshot 을 memory-map 해서 읽는다.
+ * <p>
+ * snapshot 파일 이름은 CSV 내용의 SHA-256 과 parse 옵션으로 정해지므로, 내용이 바뀌면 snapshot 을 찾지 못하고
+ * text 를 다시 parse 하면서 새 snapshot 을 만든다. snapshot 은 text parse 가 끝까지 진행된 경우에만 저장된다.
+ * <p>
+ * 형식: magic, version, row* , end marker, row 수, magic
+ * <br>row = varint(field 수) field*, field = varint(UTF-8 byte 길이 + 1) bytes (0 이면 null)
+ */
+final class CsvSnapshotCache {
+
+    private static final int MAGIC = 0x43535653; // "CSVS"
+    private static final int VERSION = 1;
+    private static final int END_OF_ROWS = 0;
+    private static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int WINDOW_SIZE = 64 << 20;
+
+    private final Path directory;
+
+    CsvSnapshotCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * snapshot 이 있으면 snapshot 을, 없으면 text 를 parse 하면서 snapshot 을 쓰는 row iterator 를 돌려준다.
+     */
+    CsvRows open(Path csv, Charset charset, char delimiter, char quote, boolean trim) throws IOException {
+        Path snapshot = snapshotPath(csv, charset, delimiter, quote, trim);
+        if (Files.isRegularFile(snapshot)) {
+            SnapshotReader reader = SnapshotReader.open(snapshot);
+            if (reader != null) {
+                return reader;
+            }
+        }
+        Files.createDirectories(directory);
+        return new RecordingRows(new MappedCsvReader(csv, charset, delimiter, quote, trim), snapshot);
+    }
+
+    Path snapshotPath(Path csv, Charset charset, char delimiter, char quote, boolean trim) throws IOException {
+        String options = charset.name() + ":" + (int) delimiter + ":" + (int) quote + ":" + trim;
+        String hash = contentHash(csv);
+        String optionsHash = Integer.toHexString(options.hashCode());
+        return directory.resolve(hash + "-" + optionsHash + ".csvs");
+    }
+
+    static String contentHash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += WINDOW_SIZE) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position)));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * text parse 결과를 그대로 넘겨주면서 snapshot 임시 파일에 기록하고, 끝까지 읽으면 snapshot 으로 옮긴다.
+     */
+    private static final class RecordingRows implements CsvRows {
+
+        private final MappedCsvReader reader;
+        private final Path snapshot;
+        private final Path temporary;
+        private final DataOutputStream out;
+        private long rowCount;
+        private boolean finished;
+
+        RecordingRows(MappedCsvReader reader, Path snapshot) throws IOException {
+            this.reader = reader;
+            this.snapshot = snapshot;
+            this.temporary = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), ".tmp");
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = reader.hasNext();
+            if (!hasNext && !finished) {
+                finish();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public String[] next() {
+            String[] row = reader.next();
+            try {
+                writeVarint(out, row.length);
+                for (String field : row) {
+                    if (field == null) {
+                        writeVarint(out, 0);
+                    } else {
+                        byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+                        writeVarint(out, bytes.length + 1);
+                        out.write(bytes);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rowCount++;
+            return row;
+        }
+
+        private void finish() {
+            finished = true;
+            try {
+                writeVarint(out, END_OF_ROWS);
+                out.writeLong(rowCount);
+                out.writeInt(MAGIC);
+                out.close();
+                Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write CSV snapshot " + snapshot, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            reader.close();
+            if (!finished) {
+                finished = true;
+                try {
+                    out.close();
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * snapshot 을 window 단위로 memory-map 해서 row 를 읽는다.
+     */
+    private static final class SnapshotReader implements CsvRows {
+
+        private final FileChannel channel;
+        private final long dataEnd;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private byte[] scratch = new byte[256];
+        private String[] next;
+        private boolean done;
+
+        private SnapshotReader(FileChannel channel, long dataEnd) throws IOException {
+            this.channel = channel;
+            this.dataEnd = dataEnd;
+            map(2 * Integer.BYTES, 0);
+        }
+
+        /**
+         * header / trailer 가 맞지 않으면 (쓰다 만 파일, 다른 version) null
+         */
+        static SnapshotReader open(Path snapshot) throws IOException {
+            FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ);
+            long size = channel.size();
+            if (size >= 2 * Integer.BYTES + TRAILER_SIZE) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, 2 * Integer.BYTES);
+                MappedByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - Integer.BYTES, Integer.BYTES);
+                if (header.getInt() == MAGIC && header.getInt() == VERSION && trailer.getInt() == MAGIC) {
+                    return new SnapshotReader(channel, size - TRAILER_SIZE);
+                }
+            }
+            channel.close();
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                int fieldCount = readVarint();
+                if (fieldCount == END_OF_ROWS) {
+                    done = true;
+                } else {
+                    String[] row = new String[fieldCount];
+                    for (int i = 0; i < fieldCount; i++) {
+                        int length = readVarint() - 1;
+                        row[i] = length < 0 ? null : readString(length);
+                    }
+                    next = row;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String[] row = next;
+            next = null;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                ensure(1);
+                byte b = window.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private String readString(int length) {
+            ensure(length);
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            window.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void ensure(int length) {
+            if (window.remaining() < length) {
+                long position = windowStart + window.position();
+                if (position + length > dataEnd) {
+                    throw new IllegalStateException("Corrupted CSV snapshot at byte " + position);
+                }
+                try {
+                    map(position, length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private void map(long start, int minimum) throws IOException {
+            long size = Math.min(Math.max(WINDOW_SIZE, minimum), dataEnd - start);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            windowStart = start;
+        }
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
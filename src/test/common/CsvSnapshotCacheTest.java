@@ -0,0 +1,68 @@
+package common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvSnapshotCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesSnapshotOnceAndReadsItBack() throws IOException {
+        Path csv = Files.writeString(dir.resolve("idol.csv"), "name, group\nkarina, \"Aespa\"\n\"\", \n카리나,에스파\n");
+        CsvSnapshotCache cache = new CsvSnapshotCache(dir.resolve("snapshots"));
+        Path snapshot = cache.snapshotPath(csv, StandardCharsets.UTF_8, ',', '"', true);
+
+        List<String> parsed = read(cache, csv);
+        assertTrue(Files.isRegularFile(snapshot));
+
+        try (CsvRows rows = cache.open(csv, StandardCharsets.UTF_8, ',', '"', true)) {
+            assertFalse(rows.getClass().getSimpleName().startsWith("Recording"));
+        }
+        assertEquals(parsed, read(cache, csv));
+        assertEquals(List.of("[name, group]", "[karina, Aespa]", "[, null]", "[카리나, 에스파]"), parsed);
+    }
+
+    @Test
+    void changedContentFallsBackToText() throws IOException {
+        Path csv = Files.writeString(dir.resolve("idol.csv"), "karina,Aespa\n");
+        CsvSnapshotCache cache = new CsvSnapshotCache(dir.resolve("snapshots"));
+        read(cache, csv);
+
+        Files.writeString(csv, "minzi,NewJeans\n");
+
+        assertEquals(List.of("[minzi, NewJeans]"), read(cache, csv));
+        assertEquals(2, Files.list(dir.resolve("snapshots")).count());
+    }
+
+    @Test
+    void partiallyReadSnapshotIsDiscarded() throws IOException {
+        Path csv = Files.writeString(dir.resolve("idol.csv"), "karina,Aespa\nminzi,NewJeans\n");
+        CsvSnapshotCache cache = new CsvSnapshotCache(dir.resolve("snapshots"));
+
+        try (CsvRows rows = cache.open(csv, StandardCharsets.UTF_8, ',', '"', true)) {
+            rows.next();
+        }
+
+        assertEquals(0, Files.list(dir.resolve("snapshots")).count());
+    }
+
+    private static List<String> read(CsvSnapshotCache cache, Path csv) throws IOException {
+        List<String> rows = new ArrayList<>();
+        try (CsvRows reader = cache.open(csv, StandardCharsets.UTF_8, ',', '"', true)) {
+            reader.forEachRemaining(row -> rows.add(Arrays.toString(row)));
+        }
+        return rows;
+    }
+}
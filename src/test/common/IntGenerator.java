@@ -0,0 +1,88 @@
+package common;
+
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * PropertyCheck 에서 쓰는 int 입력 생성기
+ * <p>
+ * 구간 [min, max] 에서 고르게 뽑되, 8 번에 한 번은 경계값 (min, max, 0, 1, -1) 을 뽑는다.
+ * (int 전체에서 고르게 뽑으면 0 이나 Integer.MIN_VALUE 는 사실상 나오지 않는다)
+ * 실패한 입력은 구간 안에서 0 에 가장 가까운 값 (target) 쪽으로 줄인다.
+ */
+public final class IntGenerator {
+
+    /**
+     * filter 가 연속으로 거절할 수 있는 횟수
+     */
+    static final int MAX_REJECTIONS = 1_000;
+
+    private static final int EDGE_ODDS = 8;
+
+    private final int min;
+    private final int max;
+    private final IntPredicate filter;
+
+    private IntGenerator(int min, int max, IntPredicate filter) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not be greater than max: " + min + " > " + max);
+        }
+        this.min = min;
+        this.max = max;
+        this.filter = filter;
+    }
+
+    public static IntGenerator any() {
+        return between(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public static IntGenerator between(int min, int max) {
+        return new IntGenerator(min, max, value -> true);
+    }
+
+    /**
+     * 생성과 shrink 모두에서 filter 를 통과한 값만 쓴다.
+     */
+    public IntGenerator filter(IntPredicate predicate) {
+        return new IntGenerator(min, max, filter.and(predicate));
+    }
+
+    int next(SplittableRandom random) {
+        for (int i = 0; i < MAX_REJECTIONS; i++) {
+            int value = random.nextInt(EDGE_ODDS) == 0 ? edge(random) : uniform(random);
+            if (filter.test(value)) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("filter rejected " + MAX_REJECTIONS + " values in a row in [" + min + ", " + max + "]");
+    }
+
+    /**
+     * shrink 가 향하는 값: 구간 안에서 0 에 가장 가까운 값
+     */
+    int target() {
+        return Math.max(min, Math.min(max, 0));
+    }
+
+    boolean accepts(int value) {
+        return value >= min && value <= max && filter.test(value);
+    }
+
+    private int uniform(SplittableRandom random) {
+        if (min == Integer.MIN_VALUE && max == Integer.MAX_VALUE) {
+            return random.nextInt();
+        }
+        return (int) random.nextLong(min, (long) max + 1);
+    }
+
+    private int edge(SplittableRandom random) {
+        int target = target();
+        return switch (random.nextInt(5)) {
+            case 0 -> min;
+            case 1 -> max;
+            case 2 -> target;
+            case 3 -> target < max ? target + 1 : target;
+            default -> target > min ? target - 1 : target;
+        };
+    }
+}
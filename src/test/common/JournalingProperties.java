@@ -0,0 +1,230 @@
+package common;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * System.getProperties() 자리에 한 번 설치되어, test 가 바꾼 key 의 이전 값만 기록하는 Properties
+ * <p>
+ * 설치할 때 원래 Properties 의 내용을 한 번만 복사하고, 원래 객체는 건드리지 않고 보관했다가 close 할 때 되돌려 놓는다.
+ * begin() 이후 같은 thread 에서 처음 바뀐 key 의 이전 값을 journal 에 남기고,
+ * restore() 는 journal 에 있는 key 만 되돌린다. 따라서 test 당 비용은 전체 property 수가 아니라 바뀐 key 수에 비례한다.
+ * <p>
+ * journal 은 새 thread 로 물려주지 않는다. (물려주면 test 가 끝난 뒤에도 남은 thread 가 지난 journal 에 기록한다)
+ * test 본문을 다른 thread 에서 실행하는 쪽이 propagate 로 명시적으로 넘긴다.
+ * <p>
+ * test 가 System.setProperties 로 객체 자체를 바꾸면 기록되지 않는다.
+ */
+public class JournalingProperties extends Properties implements ExtensionContext.Store.CloseableResource {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Object ABSENT = new Object();
+
+    private final transient Properties original;
+    private final transient ThreadLocal<Journal> journal = new ThreadLocal<>();
+
+    JournalingProperties(Properties original) {
+        this.original = original;
+        super.putAll(original);
+    }
+
+    /**
+     * 현재 system properties 를 JournalingProperties 로 바꾼다. 이미 설치되어 있으면 그 객체를 반환한다.
+     */
+    public static synchronized JournalingProperties install() {
+        Properties current = System.getProperties();
+        if (current instanceof JournalingProperties installed) {
+            return installed;
+        }
+        JournalingProperties properties = new JournalingProperties(current);
+        System.setProperties(properties);
+        return properties;
+    }
+
+    /**
+     * 현재 thread 에서 journal 을 시작한다.
+     * fork/join worker 가 test 를 기다리는 동안 다른 test 를 실행할 수 있으므로, 진행 중인 journal 은 restore() 때까지 보관한다.
+     */
+    public void begin() {
+        journal.set(new Journal(journal.get()));
+    }
+
+    /**
+     * begin() 이후 바뀐 key 를 이전 값으로 되돌리고 journal 을 끝낸다.
+     *
+     * @return 되돌린 key 수
+     */
+    public int restore() {
+        Journal current = journal.get();
+        if (current == null) {
+            return 0;
+        }
+        if (current.parent == null) {
+            journal.remove();
+        } else {
+            journal.set(current.parent);
+        }
+        current.previous.forEach((key, value) -> {
+            if (value == ABSENT) {
+                super.remove(key);
+            } else {
+                super.put(key, value);
+            }
+        });
+        return current.previous.size();
+    }
+
+    /**
+     * 현재 thread 의 journal 에 기록하면서 다른 thread 에서 실행되도록 callable 을 감싼다. journal 이 없으면 callable 그대로.
+     * 실행이 끝나면 실행한 thread 의 journal 을 원래대로 돌려 놓는다.
+     */
+    public <T> Callable<T> propagate(Callable<T> callable) {
+        Journal current = journal.get();
+        if (current == null) {
+            return callable;
+        }
+        return () -> {
+            Journal previous = journal.get();
+            journal.set(current);
+            try {
+                return callable.call();
+            } finally {
+                if (previous == null) {
+                    journal.remove();
+                } else {
+                    journal.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * system properties 가 JournalingProperties 이면 propagate, 아니면 callable 그대로
+     */
+    public static <T> Callable<T> propagateCurrent(Callable<T> callable) {
+        return System.getProperties() instanceof JournalingProperties installed ? installed.propagate(callable) : callable;
+    }
+
+    /**
+     * 원래 Properties 객체를 system properties 로 되돌린다.
+     */
+    @Override
+    public void close() {
+        synchronized (JournalingProperties.class) {
+            if (System.getProperties() == this) {
+                System.setProperties(original);
+            }
+        }
+    }
+
+    private void record(Object key) {
+        Journal current = journal.get();
+        if (current != null && key != null) {
+            current.previous.computeIfAbsent(key, k -> {
+                Object value = get(k);
+                return value == null ? ABSENT : value;
+            });
+        }
+    }
+
+    private void recordAll() {
+        if (journal.get() != null) {
+            keySet().forEach(this::record);
+        }
+    }
+
+    @Override
+    public synchronized Object put(Object key, Object value) {
+        record(key);
+        return super.put(key, value);
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        record(key);
+        return super.remove(key);
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+        record(key);
+        return super.remove(key, value);
+    }
+
+    @Override
+    public synchronized void putAll(Map<?, ?> t) {
+        t.keySet().forEach(this::record);
+        super.putAll(t);
+    }
+
+    @Override
+    public synchronized void clear() {
+        recordAll();
+        super.clear();
+    }
+
+    @Override
+    public synchronized Object putIfAbsent(Object key, Object value) {
+        record(key);
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+        record(key);
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public synchronized Object replace(Object key, Object value) {
+        record(key);
+        return super.replace(key, value);
+    }
+
+    @Override
+    public synchronized void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        recordAll();
+        super.replaceAll(function);
+    }
+
+    @Override
+    public synchronized Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+        record(key);
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public synchronized Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        record(key);
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public synchronized Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        record(key);
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public synchronized Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        record(key);
+        return super.merge(key, value, remappingFunction);
+    }
+
+    private static final class Journal {
+
+        private final Journal parent;
+        private final Map<Object, Object> previous = new ConcurrentHashMap<>();
+
+        private Journal(Journal parent) {
+            this.parent = parent;
+        }
+    }
+}
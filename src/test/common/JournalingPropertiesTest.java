@@ -0,0 +1,94 @@
+package common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalingPropertiesTest {
+
+    private final Properties original = original();
+    private final JournalingProperties properties = new JournalingProperties(original);
+
+    private static Properties original() {
+        Properties properties = new Properties();
+        properties.setProperty("a", "1");
+        properties.setProperty("b", "2");
+        return properties;
+    }
+
+    @Test
+    void restoresOnlyTouchedKeys() {
+        properties.begin();
+        properties.setProperty("a", "10");
+        properties.setProperty("a", "100");
+        properties.remove("b");
+        properties.setProperty("c", "3");
+
+        assertEquals(3, properties.restore());
+        assertEquals(original, properties);
+    }
+
+    @Test
+    void doesNotTouchOriginalObject() {
+        properties.begin();
+        properties.clear();
+        properties.putAll(Map.of("x", "y"));
+
+        assertEquals("1", original.getProperty("a"));
+        assertNull(original.getProperty("x"));
+        properties.restore();
+        assertEquals(original, properties);
+    }
+
+    @Test
+    void writesOutsideJournalAreKept() {
+        properties.setProperty("a", "10");
+
+        assertEquals(0, properties.restore());
+        assertEquals("10", properties.getProperty("a"));
+    }
+
+    @Test
+    void childThreadsDoNotInheritJournal() throws InterruptedException {
+        properties.begin();
+        Thread child = new Thread(() -> properties.setProperty("a", "child"));
+        child.start();
+        child.join();
+
+        assertEquals(0, properties.restore());
+        assertEquals("child", properties.getProperty("a"));
+    }
+
+    @Test
+    void propagatedCallableRecordsIntoJournal() throws Exception {
+        properties.begin();
+        Callable<Object> write = properties.propagate(() -> properties.setProperty("a", "child"));
+        FutureTask<Object> task = new FutureTask<>(write);
+        Thread child = new Thread(task);
+        child.start();
+        task.get();
+
+        assertEquals(1, properties.restore());
+        assertEquals("1", properties.getProperty("a"));
+    }
+
+    @Test
+    void nestedJournalsRestoreInOrder() {
+        properties.begin();
+        properties.setProperty("a", "outer");
+        properties.begin();
+        properties.setProperty("a", "inner");
+        properties.setProperty("b", "inner");
+
+        assertEquals(2, properties.restore());
+        assertEquals("outer", properties.getProperty("a"));
+        assertEquals("2", properties.getProperty("b"));
+        assertEquals(1, properties.restore());
+        assertEquals(original, properties);
+    }
+}
@@ -0,0 +1,29 @@
+package common;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+import java.nio.file.Path;
+
+/**
+ * TestHistory 를 읽어 지난 실행에서 실패한 class 를 먼저, 그다음 오래 걸린 class 를 먼저 실행한다.
+ * 병렬 실행에서 긴 class 가 마지막에 남아 worker 하나만 일하는 시간을 줄인다.
+ * 기록이 없는 class 는 기록이 있는 class 들의 중앙값으로 보고, 같으면 이름 순이다.
+ * junit.timing.history 를 지정하지 않으면 모든 class 가 기록이 없으므로 이름 순이다.
+ * <pre>
+ * junit.jupiter.testclass.order.default = common.LongestFirstClassOrderer
+ * junit.timing.history = test-history.tsv
+ * </pre>
+ */
+public class LongestFirstClassOrderer implements ClassOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        TestHistory history = context.getConfigurationParameter(TestHistory.FILE)
+                .map(file -> TestHistory.cached(Path.of(file))).orElse(TestHistory.NONE);
+        TestHistory.sortLongestFirst(context.getClassDescriptors(),
+                descriptor -> history.get(descriptor.getTestClass().getName()),
+                descriptor -> descriptor.getTestClass().getName());
+    }
+}
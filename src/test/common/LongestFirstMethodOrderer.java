@@ -0,0 +1,26 @@
+package common;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+
+import java.nio.file.Path;
+
+/**
+ * TestHistory 를 읽어 지난 실행에서 실패한 method 를 먼저, 그다음 오래 걸린 method 를 먼저 실행한다.
+ * 기록이 없는 method 는 같은 class 에서 기록이 있는 method 들의 중앙값으로 보고, 같으면 이름 순이다.
+ * <p>
+ * 기록은 TimingExtension 이 남기므로 함께 사용한다. (junit.timing.history 를 지정한 실행에서만, 없으면 이름 순)
+ */
+public class LongestFirstMethodOrderer implements MethodOrderer {
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        TestHistory history = context.getConfigurationParameter(TestHistory.FILE)
+                .map(file -> TestHistory.cached(Path.of(file))).orElse(TestHistory.NONE);
+        String className = context.getTestClass().getName();
+        TestHistory.sortLongestFirst(context.getMethodDescriptors(),
+                descriptor -> history.get(className, descriptor.getMethod().getName()),
+                descriptor -> descriptor.getMethod().getName());
+    }
+}
@@ -0,0 +1,118 @@
+package common;
+
+import anno.MappedCsvSource;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+import org.junit.platform.commons.PreconditionViolationException;
+import org.junit.platform.commons.util.Preconditions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * @MappedCsvSource 의 row 를 lazy Stream<Arguments> 로 제공한다.
+ */
+public class MappedCsvArgumentsProvider implements ArgumentsProvider, AnnotationConsumer<MappedCsvSource> {
+
+    public static final String SNAPSHOT_DIRECTORY = "junit.csv.snapshot.dir";
+
+    private MappedCsvSource annotation;
+
+    @Override
+    public void accept(MappedCsvSource annotation) {
+        this.annotation = annotation;
+    }
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+        Preconditions.condition(annotation.resources().length + annotation.files().length > 0,
+                "Resources or files must not be empty");
+        Preconditions.condition(annotation.delimiter() < 0x80 && annotation.quoteCharacter() < 0x80,
+                "delimiter and quoteCharacter must be ASCII characters");
+        Charset charset = Charset.forName(annotation.encoding());
+
+        Stream<Path> resources = Arrays.stream(annotation.resources())
+                .map(resource -> toPath(context.getRequiredTestClass(), resource));
+        Stream<Path> files = Arrays.stream(annotation.files()).map(Path::of);
+        CsvSnapshotCache cache = annotation.snapshot() ? new CsvSnapshotCache(snapshotDirectory(context)) : null;
+        return Stream.concat(resources, files).flatMap(path -> arguments(path, charset, cache));
+    }
+
+    private Stream<Arguments> arguments(Path path, Charset charset, CsvSnapshotCache cache) {
+        char delimiter = annotation.delimiter();
+        char quote = annotation.quoteCharacter();
+        boolean trim = annotation.ignoreLeadingAndTrailingWhitespace();
+        CsvRows rows;
+        try {
+            rows = cache != null
+                    ? cache.open(path, charset, delimiter, quote, trim)
+                    : new MappedCsvReader(path, charset, delimiter, quote, trim);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map " + path, e);
+        }
+        return toArguments(rows, annotation).onClose(rows::close);
+    }
+
+    private static Path snapshotDirectory(ExtensionContext context) {
+        return context.getConfigurationParameter(SNAPSHOT_DIRECTORY)
+                .map(Path::of)
+                .orElseGet(() -> Path.of(System.getProperty("java.io.tmpdir"), "junit-csv-snapshots"));
+    }
+
+    /**
+     * numLinesToSkip, header, emptyValue, nullValues 를 적용해 row 를 Arguments 로 바꾼다.
+     */
+    static Stream<Arguments> toArguments(Iterator<String[]> rows, MappedCsvSource annotation) {
+        for (int i = 0; i < annotation.numLinesToSkip() && rows.hasNext(); i++) {
+            rows.next();
+        }
+        String[] headers = annotation.useHeadersInDisplayName() && rows.hasNext() ? rows.next() : null;
+        Set<String> nullValues = Set.of(annotation.nullValues());
+        String emptyValue = annotation.emptyValue();
+
+        Spliterator<String[]> spliterator = Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).map(row -> {
+            Object[] values = new Object[row.length];
+            for (int i = 0; i < row.length; i++) {
+                String value = row[i];
+                if (value != null && value.isEmpty()) {
+                    value = emptyValue;
+                }
+                if (value != null && nullValues.contains(value)) {
+                    value = null;
+                }
+                values[i] = headers != null && i < headers.length ? Named.of(headers[i] + " = " + value, value) : value;
+            }
+            return Arguments.of(values);
+        });
+    }
+
+    private static Path toPath(Class<?> testClass, String resource) {
+        URL url = testClass.getResource(resource);
+        if (url == null) {
+            throw new PreconditionViolationException("Classpath resource [" + resource + "] does not exist");
+        }
+        if (!"file".equals(url.getProtocol())) {
+            throw new PreconditionViolationException("Classpath resource [" + resource + "] is not a file and cannot be memory-mapped: " + url);
+        }
+        try {
+            return Path.of(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new PreconditionViolationException("Invalid resource URL " + url, e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package common;
+
+import org.junit.jupiter.params.provider.CsvParsingException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * memory-map 한 CSV 파일을 row 단위로 읽는다.
+ * <p>
+ * 파일을 windowSize 크기 구간으로 나눠 map 하고, row 가 구간 끝에 걸리면 그 row 의 시작부터 다시 map 한다.
+ * (한 row 가 window 보다 크면 window 를 두 배씩 늘린다.)
+ * <p>
+ * 따옴표 없는 빈 값은 null, 따옴표로 감싼 빈 값은 "" 로 돌려준다.
+ */
+final class MappedCsvReader implements CsvRows {
+
+    static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    private static final String[] NO_ROW = new String[0];
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final Charset charset;
+    private final byte delimiter;
+    private final byte quote;
+    private final boolean trim;
+    private final int windowSize;
+    private final List<String> fields = new ArrayList<>();
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+    private byte[] scratch = new byte[256];
+    private String[] next;
+
+    MappedCsvReader(Path file, Charset charset, char delimiter, char quote, boolean trim) throws IOException {
+        this(file, charset, delimiter, quote, trim, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedCsvReader(Path file, Charset charset, char delimiter, char quote, boolean trim, int windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.charset = charset;
+        this.delimiter = (byte) delimiter;
+        this.quote = (byte) quote;
+        this.trim = trim;
+        this.windowSize = windowSize;
+        map(0, windowSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != NO_ROW;
+    }
+
+    @Override
+    public String[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String[] row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String[] readRow() throws IOException {
+        while (windowStart + position < fileSize) {
+            if (position >= window.limit()) {
+                map(windowStart + position, windowSize);
+            }
+            int end = parseRow();
+            if (end < 0) {
+                long rowStart = windowStart + position;
+                map(rowStart, rowStart == windowStart ? growWindow() : windowSize);
+                continue;
+            }
+            position = end;
+            if (!fields.isEmpty()) {
+                String[] row = fields.toArray(new String[0]);
+                fields.clear();
+                return row;
+            }
+        }
+        return NO_ROW;
+    }
+
+    /**
+     * position 부터 한 row 를 fields 에 읽는다.
+     *
+     * @return row 다음 위치, window 안에서 row 가 끝나지 않으면 -1
+     */
+    private int parseRow() {
+        fields.clear();
+        int limit = window.limit();
+        boolean lastWindow = windowStart + limit == fileSize;
+        int i = position;
+
+        if (window.get(i) == '#') {
+            while (i < limit && !isLineBreak(window.get(i))) {
+                i++;
+            }
+            return endOfLine(i, limit, lastWindow);
+        }
+
+        while (true) {
+            while (trim && i < limit && isWhitespace(window.get(i))) {
+                i++;
+            }
+            if (i >= limit && !lastWindow) {
+                return -1;
+            }
+
+            if (i < limit && window.get(i) == quote) {
+                long valueStart = windowStart + i;
+                int length = 0;
+                i++;
+                while (true) {
+                    if (i >= limit) {
+                        if (lastWindow) {
+                            throw new CsvParsingException("Unterminated quoted value starting at byte " + valueStart);
+                        }
+                        return -1;
+                    }
+                    byte b = window.get(i);
+                    if (b == quote) {
+                        if (i + 1 >= limit && !lastWindow) {
+                            return -1;
+                        }
+                        if (i + 1 < limit && window.get(i + 1) == quote) {
+                            length = append(length, quote);
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    length = append(length, b);
+                    i++;
+                }
+                while (i < limit && isWhitespace(window.get(i))) {
+                    i++;
+                }
+                if (i >= limit && !lastWindow) {
+                    return -1;
+                }
+                if (i < limit && window.get(i) != delimiter && !isLineBreak(window.get(i))) {
+                    throw new CsvParsingException("Unexpected character after quoted value at byte " + (windowStart + i));
+                }
+                fields.add(new String(scratch, 0, length, charset));
+            } else {
+                int start = i;
+                while (i < limit && window.get(i) != delimiter && !isLineBreak(window.get(i))) {
+                    i++;
+                }
+                if (i >= limit && !lastWindow) {
+                    return -1;
+                }
+                int end = i;
+                while (trim && end > start && isWhitespace(window.get(end - 1))) {
+                    end--;
+                }
+                fields.add(end == start ? null : decode(start, end - start));
+            }
+
+            if (i < limit && window.get(i) == delimiter) {
+                i++;
+                continue;
+            }
+            if (fields.size() == 1 && fields.get(0) == null) {
+                fields.clear(); // 빈 줄
+            }
+            return endOfLine(i, limit, lastWindow);
+        }
+    }
+
+    private int endOfLine(int i, int limit, boolean lastWindow) {
+        if (i >= limit) {
+            return lastWindow ? i : -1;
+        }
+        if (window.get(i) == '\r') {
+            if (i + 1 >= limit && !lastWindow) {
+                return -1;
+            }
+            if (i + 1 < limit && window.get(i + 1) == '\n') {
+                return i + 2;
+            }
+        }
+        return i + 1;
+    }
+
+    private String decode(int start, int length) {
+        ensureCapacity(length);
+        window.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, charset);
+    }
+
+    private int append(int length, byte b) {
+        ensureCapacity(length + 1);
+        scratch[length] = b;
+        return length + 1;
+    }
+
+    private void ensureCapacity(int length) {
+        if (scratch.length < length) {
+            byte[] bigger = new byte[Math.max(length, scratch.length * 2)];
+            System.arraycopy(scratch, 0, bigger, 0, scratch.length);
+            scratch = bigger;
+        }
+    }
+
+    private int growWindow() {
+        return (int) Math.min(Integer.MAX_VALUE - 8, (long) window.limit() * 2);
+    }
+
+    private void map(long start, int size) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size, fileSize - start));
+        windowStart = start;
+        position = 0;
+    }
+
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
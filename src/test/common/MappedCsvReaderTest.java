@@ -0,0 +1,56 @@
+package common;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvParsingException;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedCsvReaderTest {
+
+    private static final String CSV = "# comment\r\n"
+            + " name , group\r\n"
+            + "\r\n"
+            + "\"karina\", \"Aes,pa\"\n"
+            + "\"say \"\"hi\"\"\",\n"
+            + "카리나,\"\"\n"
+            + "   \n"
+            + "last,row";
+
+    @TempDir
+    Path dir;
+
+    // window 크기를 줄여 row 가 window 경계에 걸리는 경우를 모두 확인
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 7, 16, 1 << 20})
+    void parsesAcrossWindowBoundaries(int windowSize) throws IOException {
+        Path file = Files.writeString(dir.resolve("idol.csv"), CSV, StandardCharsets.UTF_8);
+
+        List<String> rows = new ArrayList<>();
+        try (MappedCsvReader reader = new MappedCsvReader(file, StandardCharsets.UTF_8, ',', '"', true, windowSize)) {
+            reader.forEachRemaining(row -> rows.add(Arrays.toString(row)));
+        }
+
+        assertEquals(List.of("[name, group]", "[karina, Aes,pa]", "[say \"hi\", null]", "[카리나, ]", "[last, row]"), rows);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 1 << 20})
+    void unterminatedQuote(int windowSize) throws IOException {
+        Path file = Files.writeString(dir.resolve("broken.csv"), "a,\"b\nc,d\n");
+
+        try (MappedCsvReader reader = new MappedCsvReader(file, StandardCharsets.UTF_8, ',', '"', true, windowSize)) {
+            assertThrows(CsvParsingException.class, reader::next);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package common;
+
+import org.opentest4j.AssertionFailedError;
+import org.opentest4j.TestAbortedException;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 생성한 int 입력으로 property 를 tries 번 확인한다.
+ * <p>
+ * case 는 CHUNK_SIZE 개씩 나눠 pool 에서 병렬로 실행한다. chunk 마다 seed 에서 split 한 SplittableRandom 을
+ * 하나씩 가지므로 thread 끼리 generator 를 공유하지 않고, 입력 배열도 chunk 마다 하나를 재사용해 case 당 할당이 없다.
+ * property 는 int 를 그대로 받는 functional interface 라 boxing 도 없다.
+ * <p>
+ * 실패가 여럿이면 case 번호가 가장 작은 것을 고르므로 (뒤쪽 chunk 는 그 번호를 넘으면 멈춘다)
+ * thread 수나 실행 순서와 관계없이 같은 seed 에서는 같은 반례가 나온다.
+ * 반례는 각 인자를 generator 의 target (보통 0) 쪽으로 줄여 가며 더 이상 줄지 않을 때까지 shrink 한다.
+ * <p>
+ * TestAbortedException (assumption 실패) 으로 끝난 case 는 실패로 보지 않고 discarded 로 센다.
+ */
+public final class PropertyCheck {
+
+    public static final String SEED = "junit.property.seed";
+    public static final int DEFAULT_TRIES = 1_000_000;
+
+    static final int CHUNK_SIZE = 1 << 14;
+    static final int MAX_SHRINK_STEPS = 10_000;
+
+    /**
+     * 다른 chunk 의 실패 여부를 이 case 수마다 확인한다
+     */
+    private static final int STOP_CHECK_INTERVAL = 1 << 10;
+
+    private final long seed;
+    private final int tries;
+    private final ForkJoinPool pool;
+    private final SplittableRandom root;
+
+    private final AtomicLong cases = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+
+    public PropertyCheck(long seed, int tries) {
+        this(seed, tries, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param seed  forAll 호출마다 이 seed 에서 순서대로 split 한 generator 를 쓴다
+     * @param tries forAll 한 번에 실행할 case 수
+     * @param pool  chunk 를 실행할 fork/join pool
+     */
+    public PropertyCheck(long seed, int tries, ForkJoinPool pool) {
+        if (tries < 1) {
+            throw new IllegalArgumentException("tries must be positive: " + tries);
+        }
+        this.seed = seed;
+        this.tries = tries;
+        this.pool = pool;
+        this.root = new SplittableRandom(seed);
+    }
+
+    @FunctionalInterface
+    public interface IntProperty {
+        void check(int value) throws Throwable;
+    }
+
+    @FunctionalInterface
+    public interface IntPairProperty {
+        void check(int a, int b) throws Throwable;
+    }
+
+    public void forAll(IntGenerator generator, IntProperty property) {
+        run(new IntGenerator[]{generator}, values -> property.check(values[0]));
+    }
+
+    public void forAll(IntGenerator first, IntGenerator second, IntPairProperty property) {
+        run(new IntGenerator[]{first, second}, values -> property.check(values[0], values[1]));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 지금까지 forAll 로 실행한 case 수 (shrink 제외)
+     */
+    public long getCases() {
+        return cases.get();
+    }
+
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    /**
+     * 지금까지 forAll 에 걸린 시간 (shrink 포함)
+     */
+    public long getNanos() {
+        return nanos.get();
+    }
+
+    private interface Property {
+        void check(int[] values) throws Throwable;
+    }
+
+    private void run(IntGenerator[] generators, Property property) {
+        long start = System.nanoTime();
+        int chunks = (tries + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        synchronized (root) {
+            SplittableRandom random = root.split();
+            for (int i = 0; i < chunks; i++) {
+                randoms[i] = random.split();
+            }
+        }
+
+        Search search = new Search();
+        try {
+            pool.submit(() -> IntStream.range(0, chunks).parallel()
+                    .forEach(chunk -> runChunk(chunk, randoms[chunk], generators, property, search))).join();
+            if (search.failure != null) {
+                throw shrink(generators, property, search);
+            }
+        } finally {
+            nanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void runChunk(int chunk, SplittableRandom random, IntGenerator[] generators, Property property, Search search) {
+        long first = (long) chunk * CHUNK_SIZE;
+        long end = Math.min(first + CHUNK_SIZE, tries);
+        int[] values = new int[generators.length];
+        long index = first;
+        long skipped = 0;
+        try {
+            for (; index < end; index++) {
+                if ((index & (STOP_CHECK_INTERVAL - 1)) == 0 && index > search.firstFailure.get()) {
+                    break;
+                }
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = generators[i].next(random);
+                }
+                try {
+                    property.check(values);
+                } catch (TestAbortedException e) {
+                    skipped++;
+                } catch (OutOfMemoryError e) {
+                    throw e;
+                } catch (Throwable t) {
+                    search.fail(index, values.clone(), t);
+                    index++;
+                    break;
+                }
+            }
+        } finally {
+            cases.addAndGet(index - first);
+            discarded.addAndGet(skipped);
+        }
+    }
+
+    private AssertionFailedError shrink(IntGenerator[] generators, Property property, Search search) {
+        int[] values = search.values.clone();
+        Throwable failure = search.failure;
+        int steps = 0;
+        boolean progress = true;
+        while (progress && steps < MAX_SHRINK_STEPS) {
+            progress = false;
+            for (int i = 0; i < values.length && steps < MAX_SHRINK_STEPS; i++) {
+                int current = values[i];
+                long distance = (long) current - generators[i].target();
+                // target 에 가까운 후보부터: target, 절반, 1/4 ... 바로 옆 값
+                for (long step = distance; step != 0; step /= 2) {
+                    int candidate = (int) (current - step);
+                    if (!generators[i].accepts(candidate)) {
+                        continue;
+                    }
+                    values[i] = candidate;
+                    Throwable candidateFailure = failure(property, values);
+                    if (candidateFailure != null) {
+                        failure = candidateFailure;
+                        steps++;
+                        progress = true;
+                        break;
+                    }
+                    values[i] = current;
+                }
+            }
+        }
+
+        AssertionFailedError error = new AssertionFailedError(String.format(
+                "property failed for %s (shrunk from %s in %d steps) at case #%d of %d (%s=%d): %s",
+                format(values), format(search.values), steps, search.firstFailure.get(), tries, SEED, seed, failure), failure);
+        if (failure != search.failure) {
+            error.addSuppressed(search.failure);
+        }
+        return error;
+    }
+
+    private static Throwable failure(Property property, int[] values) {
+        try {
+            property.check(values);
+            return null;
+        } catch (TestAbortedException e) {
+            return null;
+        } catch (OutOfMemoryError e) {
+            throw e;
+        } catch (Throwable t) {
+            return t;
+        }
+    }
+
+    private static String format(int[] values) {
+        return Arrays.stream(values).mapToObj(String::valueOf).collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    /**
+     * 지금까지 찾은 실패 중 case 번호가 가장 작은 것
+     */
+    private static class Search {
+
+        private final AtomicLong firstFailure = new AtomicLong(Long.MAX_VALUE);
+        private int[] values;
+        private Throwable failure;
+
+        synchronized void fail(long index, int[] values, Throwable failure) {
+            if (index < firstFailure.get()) {
+                firstFailure.set(index);
+                this.values = values;
+                this.failure = failure;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package common;
+
+import anno.PropertyTest;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @PropertyTest method 의 PropertyCheck parameter 를 만들어 준다.
+ * <p>
+ * PropertyCheck 는 method store 에 두고, test 가 끝나면 seed 와 실행한 case 수, 초당 case 수를 report entry (property) 로 남긴다.
+ */
+public class PropertyCheckExtension implements ParameterResolver, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(PropertyCheckExtension.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == PropertyCheck.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return extensionContext.getStore(NAMESPACE).getOrComputeIfAbsent(PropertyCheck.class, key -> {
+            int tries = AnnotationSupport.findAnnotation(extensionContext.getTestMethod(), PropertyTest.class)
+                    .map(PropertyTest::tries)
+                    .orElse(PropertyCheck.DEFAULT_TRIES);
+            long seed = extensionContext.getConfigurationParameter(PropertyCheck.SEED, value -> Long.parseLong(value.trim()))
+                    .orElseGet(() -> ThreadLocalRandom.current().nextLong());
+            return new PropertyCheck(seed, tries);
+        }, PropertyCheck.class);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext extensionContext) {
+        PropertyCheck check = extensionContext.getStore(NAMESPACE).get(PropertyCheck.class, PropertyCheck.class);
+        if (check == null || check.getCases() == 0) {
+            return;
+        }
+        double perSecond = check.getCases() * 1e9 / Math.max(1, check.getNanos());
+        extensionContext.publishReportEntry("property", String.format("%s=%d cases=%d discarded=%d (%.1fM cases/s)",
+                PropertyCheck.SEED, check.getSeed(), check.getCases(), check.getDiscarded(), perSecond / 1e6));
+    }
+}
@@ -0,0 +1,76 @@
+package common;
+
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PropertyCheckTest {
+
+    @Test
+    void shrinksToSmallestCounterexample() {
+        PropertyCheck check = new PropertyCheck(42, 100_000);
+
+        AssertionFailedError error = assertThrows(AssertionFailedError.class,
+                () -> check.forAll(IntGenerator.any(), IntGenerator.any(), (a, b) -> assertTrue(a < 1000 || b > -5)));
+
+        assertTrue(error.getMessage().startsWith("property failed for (1000, -5)"), error.getMessage());
+        assertTrue(error.getMessage().contains(PropertyCheck.SEED + "=42"), error.getMessage());
+    }
+
+    @Test
+    void shrinkStaysInsideGenerator() {
+        PropertyCheck check = new PropertyCheck(7, 10_000);
+        IntGenerator odd = IntGenerator.between(-50, 50).filter(value -> value % 2 != 0);
+
+        AssertionFailedError error = assertThrows(AssertionFailedError.class,
+                () -> check.forAll(odd, value -> assertTrue(value < 3)));
+
+        assertTrue(error.getMessage().startsWith("property failed for (3)"), error.getMessage());
+    }
+
+    @Test
+    void sameSeedFindsSameCounterexample() {
+        // 거의 모든 chunk 에서 실패가 나므로, 실행 순서와 관계없이 같은 (가장 앞의) case 를 골라야 한다
+        String first = assertThrows(AssertionFailedError.class, () -> new PropertyCheck(3, 200_000)
+                .forAll(IntGenerator.any(), value -> assertTrue(value < 2_100_000_000))).getMessage();
+        String second = assertThrows(AssertionFailedError.class, () -> new PropertyCheck(3, 200_000)
+                .forAll(IntGenerator.any(), value -> assertTrue(value < 2_100_000_000))).getMessage();
+
+        assertTrue(first.startsWith("property failed for (2100000000)"), first);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void runsAllTriesAndCountsDiscarded() {
+        PropertyCheck check = new PropertyCheck(1, 50_000);
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+
+        check.forAll(IntGenerator.between(0, 9), value -> {
+            assumeTrue(value != 5);
+            seen.add(value);
+        });
+
+        assertEquals(50_000, check.getCases());
+        assertTrue(check.getDiscarded() > 0);
+        assertEquals(Set.of(0, 1, 2, 3, 4, 6, 7, 8, 9), seen);
+    }
+
+    @Test
+    void generatesEdgeValues() {
+        PropertyCheck check = new PropertyCheck(5, 10_000);
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+
+        check.forAll(IntGenerator.any(), value -> {
+            if (value == 0 || value == Integer.MIN_VALUE || value == Integer.MAX_VALUE) {
+                seen.add(value);
+            }
+        });
+
+        assertEquals(Set.of(0, Integer.MIN_VALUE, Integer.MAX_VALUE), seen);
+    }
+}
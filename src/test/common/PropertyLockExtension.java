@@ -0,0 +1,46 @@
+package common;
+
+import anno.PropertyLock;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @PropertyLock 에 선언된 key 의 lock 을 test 실행 전에 잡는다. (test method, test class, enclosing class 의 선언을 합친다)
+ * <p>
+ * 잡은 lock 은 test method 의 store 에 두므로 method context 가 닫힐 때, 즉 @AfterEach 와 다른 extension 의
+ * afterEach (예: @RestoreSystemProperties 의 복원) 가 모두 끝난 뒤 놓인다.
+ */
+public class PropertyLockExtension implements BeforeEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(PropertyLockExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext extensionContext) throws Exception {
+        Map<String, ResourceAccessMode> keys = new HashMap<>();
+        AnnotationSupport.findRepeatableAnnotations(extensionContext.getRequiredTestMethod(), PropertyLock.class)
+                .forEach(lock -> add(keys, lock));
+        for (Class<?> type = extensionContext.getRequiredTestClass(); type != null; type = type.getEnclosingClass()) {
+            AnnotationSupport.findRepeatableAnnotations(type, PropertyLock.class).forEach(lock -> add(keys, lock));
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        PropertyLockTable.Held held = getTable(extensionContext).lock(keys);
+        extensionContext.getStore(NAMESPACE).put(PropertyLockTable.Held.class, held);
+    }
+
+    private static void add(Map<String, ResourceAccessMode> keys, PropertyLock lock) {
+        keys.merge(lock.value(), lock.mode(),
+                (a, b) -> a == ResourceAccessMode.READ_WRITE ? a : b);
+    }
+
+    private PropertyLockTable getTable(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(PropertyLockTable.class, key -> new PropertyLockTable(), PropertyLockTable.class);
+    }
+}
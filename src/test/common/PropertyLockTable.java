@@ -0,0 +1,153 @@
+package common;
+
+import anno.PropertyLock;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * system property key 를 stripe 로 나눈 read/write lock table
+ * <p>
+ * key 단위 lock 은 global read lock 을 먼저 잡고, 필요한 stripe 를 index 순서로 잡는다. (같은 stripe 는 한 번, write 우선)
+ * 전체 property 의 write lock 은 global write lock 이므로 key 단위 lock 과 모두 배타적이고,
+ * read lock 은 global read lock 과 모든 stripe 의 read lock 이므로 key 를 읽는 test 와는 함께, 쓰는 test 와는 따로 실행된다.
+ * 항상 같은 순서로 잡기 때문에 test 끼리 deadlock 이 생기지 않는다.
+ * <p>
+ * lock 은 thread 가 아니라 Held (test 하나) 가 소유한다. fork/join worker 는 기다리는 동안 다른 test 를 실행할 수 있는데,
+ * ReentrantReadWriteLock 이라면 같은 worker 의 test 끼리는 서로 배제되지 않는다. 그래서 permit 수로 read/write 를 나타내는
+ * fair Semaphore 를 쓴다. (read 1 개, write MAX_READERS 개)
+ * fork/join worker 에서 기다릴 때는 ForkJoinPool.managedBlock 을 사용한다.
+ */
+class PropertyLockTable {
+
+    static final int DEFAULT_STRIPES = 64;
+
+    private static final int MAX_READERS = 1 << 16;
+
+    private final Semaphore global = new Semaphore(MAX_READERS, true);
+    private final Semaphore[] stripes;
+
+    PropertyLockTable() {
+        this(DEFAULT_STRIPES);
+    }
+
+    PropertyLockTable(int stripeCount) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        stripes = new Semaphore[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Semaphore(MAX_READERS, true);
+        }
+    }
+
+    /**
+     * @param keys key -> access mode. PropertyLock.ALL 은 전체 property
+     * @return 잡은 lock. close 하면 역순으로 놓는다.
+     */
+    Held lock(Map<String, ResourceAccessMode> keys) throws InterruptedException {
+        Held held = new Held();
+        try {
+            for (Permits permits : permitsFor(keys)) {
+                acquire(permits);
+                held.permits.add(permits);
+            }
+        } catch (InterruptedException | RuntimeException e) {
+            held.close();
+            throw e;
+        }
+        return held;
+    }
+
+    List<Permits> permitsFor(Map<String, ResourceAccessMode> keys) {
+        ResourceAccessMode all = keys.get(PropertyLock.ALL);
+        if (all == ResourceAccessMode.READ_WRITE) {
+            return List.of(new Permits(global, MAX_READERS));
+        }
+        List<Permits> permits = new ArrayList<>(stripes.length + 1);
+        permits.add(new Permits(global, 1));
+        if (all == ResourceAccessMode.READ) {
+            // key 단위로 쓰는 test 가 있으면 읽기 전에 기다린다. 읽기만 하는 다른 key 와는 합치지 않고 모두 read
+            TreeMap<Integer, Boolean> writeByStripe = writeByStripe(keys);
+            for (int stripe = 0; stripe < stripes.length; stripe++) {
+                permits.add(new Permits(stripes[stripe], writeByStripe.getOrDefault(stripe, false) ? MAX_READERS : 1));
+            }
+            return permits;
+        }
+        writeByStripe(keys).forEach((stripe, write) -> permits.add(new Permits(stripes[stripe], write ? MAX_READERS : 1)));
+        return permits;
+    }
+
+    private TreeMap<Integer, Boolean> writeByStripe(Map<String, ResourceAccessMode> keys) {
+        TreeMap<Integer, Boolean> writeByStripe = new TreeMap<>();
+        keys.forEach((key, mode) -> {
+            if (!key.equals(PropertyLock.ALL)) {
+                writeByStripe.merge(stripeOf(key), mode == ResourceAccessMode.READ_WRITE, Boolean::logicalOr);
+            }
+        });
+        return writeByStripe;
+    }
+
+    private int stripeOf(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    private static void acquire(Permits permits) throws InterruptedException {
+        if (permits.semaphore.tryAcquire(permits.count)) {
+            return;
+        }
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            private boolean acquired;
+
+            @Override
+            public boolean block() throws InterruptedException {
+                if (!acquired) {
+                    permits.semaphore.acquire(permits.count);
+                    acquired = true;
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return acquired || (acquired = permits.semaphore.tryAcquire(permits.count));
+            }
+        });
+    }
+
+    /**
+     * semaphore 하나에서 잡는 permit 수 (read 1, write MAX_READERS)
+     */
+    record Permits(Semaphore semaphore, int count) {
+
+        boolean write() {
+            return count == MAX_READERS;
+        }
+    }
+
+    /**
+     * test 하나가 잡은 lock. test method 의 store 에 두면 context 가 닫힐 때 (모든 after callback 뒤) 놓인다.
+     * 잡은 thread 가 아닌 thread 에서 놓아도 된다.
+     */
+    static final class Held implements ExtensionContext.Store.CloseableResource {
+
+        private final List<Permits> permits = new ArrayList<>();
+
+        @Override
+        public void close() {
+            for (int i = permits.size() - 1; i >= 0; i--) {
+                Permits held = permits.get(i);
+                held.semaphore.release(held.count);
+            }
+            permits.clear();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package common;
+
+import anno.PropertyLock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.parallel.ResourceAccessMode.READ;
+import static org.junit.jupiter.api.parallel.ResourceAccessMode.READ_WRITE;
+
+class PropertyLockTableTest {
+
+    private final PropertyLockTable table = new PropertyLockTable();
+
+    @Test
+    void disjointKeysDoNotBlock() throws Exception {
+        PropertyLockTable.Held held = table.lock(Map.of("my.prop", READ_WRITE));
+        try {
+            assertTrue(lockInOtherThread(Map.of("other.prop", READ_WRITE)).isDone());
+        } finally {
+            held.close();
+        }
+    }
+
+    @Test
+    void readersShareKey() throws Exception {
+        PropertyLockTable.Held held = table.lock(Map.of("my.prop", READ));
+        try {
+            assertTrue(lockInOtherThread(Map.of("my.prop", READ)).isDone());
+        } finally {
+            held.close();
+        }
+    }
+
+    @Test
+    void writerWaitsForSameKey() throws Exception {
+        FutureTask<Void> writer;
+        PropertyLockTable.Held held = table.lock(Map.of("my.prop", READ));
+        try {
+            writer = lockInOtherThread(Map.of("my.prop", READ_WRITE));
+            assertFalse(writer.isDone());
+        } finally {
+            held.close();
+        }
+        writer.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void wholeSetWriteExcludesKeyReaders() throws Exception {
+        FutureTask<Void> key;
+        PropertyLockTable.Held held = table.lock(Map.of(PropertyLock.ALL, READ_WRITE));
+        try {
+            key = lockInOtherThread(Map.of("my.prop", READ));
+            assertFalse(key.isDone());
+        } finally {
+            held.close();
+        }
+        key.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void wholeSetReadSharesWithKeyReadersOnly() throws Exception {
+        FutureTask<Void> writer;
+        PropertyLockTable.Held held = table.lock(Map.of(PropertyLock.ALL, READ));
+        try {
+            assertTrue(lockInOtherThread(Map.of("my.prop", READ)).isDone());
+            assertTrue(lockInOtherThread(Map.of(PropertyLock.ALL, READ)).isDone());
+            writer = lockInOtherThread(Map.of("my.prop", READ_WRITE));
+            assertFalse(writer.isDone());
+        } finally {
+            held.close();
+        }
+        writer.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void sharedStripeIsLockedOnceInWriteMode() {
+        PropertyLockTable single = new PropertyLockTable(1);
+
+        // global read + stripe write
+        List<PropertyLockTable.Permits> permits = single.permitsFor(Map.of("a", READ_WRITE, "b", READ));
+        assertEquals(2, permits.size());
+        assertFalse(permits.get(0).write());
+        assertTrue(permits.get(1).write());
+    }
+
+    @Test
+    void sameThreadIsExcludedToo() throws Exception {
+        Thread current = Thread.currentThread();
+        PropertyLockTable.Held held = table.lock(Map.of("my.prop", READ_WRITE));
+        try {
+            Thread interrupter = new Thread(() -> {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ignoredInterrupt) {
+                    return;
+                }
+                current.interrupt();
+            });
+            interrupter.start();
+            // reentrant lock 이면 바로 잡힌다. 같은 worker 에서 다른 test 가 실행되는 경우와 같다
+            assertThrows(InterruptedException.class, () -> table.lock(Map.of("my.prop", READ)));
+            interrupter.join();
+        } finally {
+            held.close();
+        }
+        assertTrue(lockInOtherThread(Map.of("my.prop", READ_WRITE)).isDone());
+    }
+
+    @Test
+    void heldLockCanBeReleasedFromAnotherThread() throws Exception {
+        PropertyLockTable.Held held = table.lock(Map.of("my.prop", READ_WRITE));
+        Thread releaser = new Thread(held::close);
+        releaser.start();
+        releaser.join();
+
+        assertTrue(lockInOtherThread(Map.of("my.prop", READ_WRITE)).isDone());
+    }
+
+    /**
+     * 다른 thread 에서 lock 을 잡았다 놓는다. 100 ms 안에 끝나지 않으면 끝나지 않은 task 를 반환한다.
+     */
+    private FutureTask<Void> lockInOtherThread(Map<String, ResourceAccessMode> keys) throws Exception {
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            table.lock(keys).close();
+            return null;
+        });
+        new Thread(task).start();
+        try {
+            task.get(100, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ignored) {
+            // 아직 기다리는 중
+        }
+        return task;
+    }
+}
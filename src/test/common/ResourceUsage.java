@@ -0,0 +1,44 @@
+package common;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * 현재 thread 의 누적 할당량, CPU 시간과 JVM 전체 GC 횟수/시간 snapshot
+ * <p>
+ * 측정 자체가 할당하지 않도록 thread 마다 인스턴스를 재사용하며 capture() 로 값을 덮어쓴다.
+ * 지원하지 않는 JVM 에서는 해당 값이 -1 이다. GC 값은 JVM 전체 기준이므로 병렬 실행 중에는 다른 test 의 GC 가 섞일 수 있다.
+ */
+final class ResourceUsage {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean HOTSPOT_THREADS =
+            THREADS instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) THREADS : null;
+    private static final GarbageCollectorMXBean[] COLLECTORS =
+            ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+
+    private static final boolean ALLOCATION_SUPPORTED = HOTSPOT_THREADS != null
+            && HOTSPOT_THREADS.isThreadAllocatedMemorySupported() && HOTSPOT_THREADS.isThreadAllocatedMemoryEnabled();
+    private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported()
+            && THREADS.isThreadCpuTimeEnabled();
+
+    long allocatedBytes;
+    long cpuNanos;
+    long gcCount;
+    long gcMillis;
+
+    void capture() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : COLLECTORS) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        allocatedBytes = ALLOCATION_SUPPORTED ? HOTSPOT_THREADS.getCurrentThreadAllocatedBytes() : -1;
+        cpuNanos = CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1;
+        gcCount = count;
+        gcMillis = millis;
+    }
+}
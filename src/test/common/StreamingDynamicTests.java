@@ -0,0 +1,204 @@
+package common;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.function.ThrowingConsumer;
+import org.opentest4j.AssertionFailedError;
+import org.opentest4j.TestAbortedException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 수백만 개의 case 를 DynamicTest 하나씩으로 만들면 node 와 display name 이 test tree 에 모두 남는다.
+ * 여기서는 case batchSize 개를 DynamicTest 하나로 묶어, batch 를 실행할 때 입력을 하나씩 꺼내 쓰고 버린다.
+ * test tree 에는 batch 수만큼의 node 만 남고, 입력은 실행 중인 것 하나만 살아 있다.
+ * <p>
+ * batch 안에서 실패한 case 는 모아 두었다가 batch 가 끝나면 한 번에 실패시킨다. (case 번호, display name, seed 포함)
+ * stream 이 닫힐 때 전체 case / 실패 / abort 수를 log 로 남긴다.
+ * <p>
+ * random(...) 은 seed 로 만든 SplittableRandom 을 batch 마다 split 해서 입력을 만든다.
+ * 실패 message 의 seed 를 system property junit.dynamic.seed 로 주면 같은 입력이 같은 순서로 다시 만들어진다.
+ * <p>
+ * batch 는 하나씩 차례로 실행되어야 하므로 @TestFactory 는 SAME_THREAD 로 실행한다.
+ * @Execution(CONCURRENT) class 안에서는 Jupiter 가 앞 batch 를 실행하기 전에 다음 batch 를 꺼내므로 IllegalStateException 으로 실패한다.
+ * 이 경우 @TestFactory method 에 @Execution(ExecutionMode.SAME_THREAD) 를 붙인다.
+ */
+public final class StreamingDynamicTests {
+
+    public static final String SEED = "junit.dynamic.seed";
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    /**
+     * batch 하나에서 예외로 남겨 둘 실패 case 수
+     */
+    static final int MAX_REPORTED_FAILURES = 10;
+
+    private static final Logger logger = Logger.getLogger(StreamingDynamicTests.class.getName());
+
+    private StreamingDynamicTests() {
+    }
+
+    /**
+     * inputs 를 batchSize 개씩 실행하는 DynamicTest stream. inputs 는 batch 가 실행될 때 꺼낸다.
+     */
+    public static <T> Stream<DynamicTest> batched(Iterator<? extends T> inputs, Function<? super T, String> displayNameGenerator,
+                                                  ThrowingConsumer<? super T> testExecutor, int batchSize) {
+        return stream(new Batches<>(inputs, displayNameGenerator, testExecutor, batchSize, OptionalLong.empty()));
+    }
+
+    /**
+     * junit.dynamic.seed (없으면 임의의 값) 로 count 개의 입력을 만들어 실행한다.
+     */
+    public static <T> Stream<DynamicTest> random(long count, int batchSize, Function<? super SplittableRandom, ? extends T> generator,
+                                                 ThrowingConsumer<? super T> testExecutor) {
+        return random(seed(), count, batchSize, generator, testExecutor);
+    }
+
+    public static <T> Stream<DynamicTest> random(long seed, long count, int batchSize, Function<? super SplittableRandom, ? extends T> generator,
+                                                 ThrowingConsumer<? super T> testExecutor) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        Iterator<T> inputs = new Iterator<>() {
+            private final SplittableRandom root = new SplittableRandom(seed);
+            private SplittableRandom batch;
+            private long generated;
+
+            @Override
+            public boolean hasNext() {
+                return generated < count;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (generated++ % batchSize == 0) {
+                    batch = root.split();
+                }
+                return generator.apply(batch.split());
+            }
+        };
+        return stream(new Batches<>(inputs, String::valueOf, testExecutor, batchSize, OptionalLong.of(seed)));
+    }
+
+    static long seed() {
+        String seed = System.getProperty(SEED);
+        return seed == null || seed.isBlank() ? ThreadLocalRandom.current().nextLong() : Long.parseLong(seed.trim());
+    }
+
+    private static <T> Stream<DynamicTest> stream(Batches<T> batches) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(batches::report);
+    }
+
+    /**
+     * batch 단위로 DynamicTest 를 만든다. JUnit 은 DynamicTest 를 꺼내는 즉시 실행하므로 batch 는 차례로 입력을 나눠 갖는다.
+     * 앞 batch 를 실행하기 전에 다음 batch 를 꺼내면 (toList() 등) 입력이 줄지 않아 끝나지 않으므로 예외를 던진다.
+     */
+    private static class Batches<T> implements Iterator<DynamicTest> {
+
+        private final Iterator<? extends T> inputs;
+        private final Function<? super T, String> displayNameGenerator;
+        private final ThrowingConsumer<? super T> testExecutor;
+        private final int batchSize;
+        private final OptionalLong seed;
+
+        // hasNext() 에 부작용이 있는 iterator 도 있으므로 한 번만 호출한다
+        private boolean checked;
+        private boolean available;
+        private boolean pending;
+
+        private long batches;
+        private long cases;
+        private long failed;
+        private long aborted;
+
+        Batches(Iterator<? extends T> inputs, Function<? super T, String> displayNameGenerator,
+                ThrowingConsumer<? super T> testExecutor, int batchSize, OptionalLong seed) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+            }
+            this.inputs = inputs;
+            this.displayNameGenerator = displayNameGenerator;
+            this.testExecutor = testExecutor;
+            this.batchSize = batchSize;
+            this.seed = seed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending) {
+                throw new IllegalStateException("batch " + (batches - 1) + " must be executed before the next batch is requested"
+                        + " (annotate the @TestFactory with @Execution(SAME_THREAD))");
+            }
+            if (!checked) {
+                available = inputs.hasNext();
+                checked = true;
+            }
+            return available;
+        }
+
+        @Override
+        public DynamicTest next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long batch = batches++;
+            long first = cases;
+            pending = true;
+            return DynamicTest.dynamicTest("batch " + batch + " (cases from #" + first + ")", () -> execute(batch));
+        }
+
+        private void execute(long batch) {
+            pending = false;
+            long first = cases;
+            int failures = 0;
+            AssertionFailedError error = null;
+            for (int i = 0; i < batchSize && hasNext(); i++) {
+                checked = false;
+                T input = inputs.next();
+                long index = cases++;
+                try {
+                    testExecutor.accept(input);
+                } catch (TestAbortedException e) {
+                    aborted++;
+                } catch (OutOfMemoryError e) {
+                    throw e;
+                } catch (Throwable t) {
+                    failed++;
+                    String description = "case #" + index + " '" + displayNameGenerator.apply(input) + "'";
+                    if (error == null) {
+                        error = new AssertionFailedError(description, t);
+                    } else if (failures < MAX_REPORTED_FAILURES) {
+                        error.addSuppressed(new AssertionFailedError(description, t));
+                    }
+                    failures++;
+                }
+            }
+            if (error != null) {
+                throw new AssertionFailedError(String.format("%d of %d cases failed in batch %d%s, first: %s",
+                        failures, cases - first, batch, seedSuffix(), error.getMessage()), error);
+            }
+        }
+
+        private String seedSuffix() {
+            return seed.isPresent() ? " (" + SEED + "=" + seed.getAsLong() + ")" : "";
+        }
+
+        void report() {
+            logger.info(() -> String.format("streaming dynamic tests: batches=%d cases=%d failed=%d aborted=%d%s",
+                    batches, cases, failed, aborted, seedSuffix()));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package common;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingDynamicTestsTest {
+
+    @Test
+    void sameSeedGeneratesSameInputs() throws Throwable {
+        List<Integer> first = new ArrayList<>();
+        List<Integer> second = new ArrayList<>();
+
+        execute(StreamingDynamicTests.random(42, 1_000, 64, random -> random.nextInt(), first::add));
+        execute(StreamingDynamicTests.random(42, 1_000, 64, random -> random.nextInt(), second::add));
+
+        assertEquals(1_000, first.size());
+        assertEquals(first, second);
+    }
+
+    @Test
+    void createsOneNodePerBatch() throws Throwable {
+        assertEquals(4, execute(StreamingDynamicTests.random(42, 1_000, 300, random -> random.nextInt(), input -> {
+        })));
+    }
+
+    @Test
+    void reportsFailedCasesWithSeedAndIndex() {
+        DynamicTest batch = StreamingDynamicTests.random(7, 100, 100, random -> random.nextInt(10),
+                input -> assertNotEquals(3, input)).findFirst().orElseThrow();
+
+        AssertionFailedError error = assertThrows(AssertionFailedError.class, () -> batch.getExecutable().execute());
+        assertTrue(error.getMessage().contains("cases failed in batch 0 (junit.dynamic.seed=7)"), error.getMessage());
+        assertTrue(error.getMessage().contains("first: case #"), error.getMessage());
+    }
+
+    @Test
+    void rejectsCollectingBatchesBeforeExecution() {
+        Stream<DynamicTest> tests = StreamingDynamicTests.random(7, 1_000, 10, random -> random.nextInt(), input -> {
+        });
+
+        assertThrows(IllegalStateException.class, tests::toList);
+    }
+
+    @Nested
+    @Execution(ExecutionMode.CONCURRENT)
+    class InConcurrentClass {
+
+        @TestFactory
+        @Execution(ExecutionMode.SAME_THREAD)
+        Stream<DynamicTest> runsBatchesInOrderOnSameThread() {
+            return StreamingDynamicTests.random(7, 100, 10, random -> random.nextInt(10), input -> assertTrue(input < 10));
+        }
+    }
+
+    @Test
+    void callsHasNextOncePerInput() throws Throwable {
+        // hasNext() 가 값을 만드는 iterator (DynamicTestsDemo 와 같은 형태)
+        Iterator<Integer> inputs = new Iterator<>() {
+            private int next = -1;
+
+            @Override
+            public boolean hasNext() {
+                return ++next < 25;
+            }
+
+            @Override
+            public Integer next() {
+                return next;
+            }
+        };
+        List<Integer> seen = new ArrayList<>();
+
+        execute(StreamingDynamicTests.batched(inputs, String::valueOf, seen::add, 10));
+
+        assertEquals(IntStream.range(0, 25).boxed().toList(), seen);
+    }
+
+    /**
+     * JUnit 처럼 DynamicTest 를 꺼내는 즉시 실행한다.
+     *
+     * @return 실행한 DynamicTest 수
+     */
+    private static int execute(Stream<DynamicTest> tests) throws Throwable {
+        int count = 0;
+        try (tests) {
+            for (Iterator<DynamicTest> it = tests.iterator(); it.hasNext(); count++) {
+                it.next().getExecutable().execute();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,31 @@
+package common;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * test 마다 바뀐 system property 만 되돌린다. (@RestoreSystemProperties)
+ * <p>
+ * 처음 사용할 때 JournalingProperties 를 설치해 root store 에 두고, 실행이 끝나면 원래 Properties 객체를 되돌려 놓는다.
+ * journal 은 @BeforeEach 보다 먼저 시작하고 @AfterEach 가 끝난 뒤 되돌린다.
+ */
+public class SystemPropertiesExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SystemPropertiesExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext extensionContext) {
+        getProperties(extensionContext).begin();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext extensionContext) {
+        getProperties(extensionContext).restore();
+    }
+
+    private JournalingProperties getProperties(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(JournalingProperties.class, key -> JournalingProperties.install(), JournalingProperties.class);
+    }
+}
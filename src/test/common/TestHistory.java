@@ -0,0 +1,286 @@
+package common;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * test method 별 실행 시간 (실행마다 합친 시간의 지수 이동 평균) 과 마지막 실행의 실패 여부
+ * <p>
+ * TimingExtension 이 이번 실행의 시간을 모으고, 실행이 끝날 때 이전 기록과 합쳐 파일에 저장한다.
+ * 파일은 configuration parameter junit.timing.history 를 지정한 실행에서만 읽고 쓴다. (opt-in, 없으면 NONE)
+ * 이번에 실행되지 않은 test 의 기록은 그대로 남는다.
+ * LongestFirstClassOrderer / LongestFirstMethodOrderer 가 이 파일을 읽어 실행 순서를 정한다.
+ * <p>
+ * ShardedLauncher 는 fork 한 JVM 의 class 단위 시간을 method 이름 CLASS 로 함께 남긴다.
+ * <p>
+ * 파일 형식 (tab 구분): class, method, 평균 시간 (ns), 실패 여부 (0/1), 실행 횟수
+ */
+public class TestHistory implements ExtensionContext.Store.CloseableResource {
+
+    /**
+     * configuration parameter: history 파일 경로
+     */
+    public static final String FILE = "junit.timing.history";
+
+    /**
+     * history 파일을 지정하지 않은 실행. 읽으면 비어 있고 기록 / 저장하지 않는다.
+     */
+    /**
+     * class 전체의 실행 시간을 기록하는 method 이름 (method 이름으로 쓸 수 없는 값)
+     */
+    static final String CLASS = "*";
+
+    public static final TestHistory NONE = new TestHistory(null, Map.of());
+
+    /**
+     * 새 실행 시간의 가중치
+     */
+    static final double ALPHA = 0.3;
+
+    private static final Logger logger = Logger.getLogger(TestHistory.class.getName());
+
+    private static final Map<Path, Cached> cache = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final Map<String, Map<String, Entry>> entries;
+    private final Map<String, Map<String, Run>> runs = new ConcurrentHashMap<>();
+
+    TestHistory(Path file, Map<String, Map<String, Entry>> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    public static TestHistory load(Path file) {
+        Map<String, Map<String, Entry>> entries = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    String[] fields = line.split("\t");
+                    if (line.startsWith("#") || fields.length != 5) {
+                        continue;
+                    }
+                    entries.computeIfAbsent(fields[0], key -> new TreeMap<>())
+                            .put(fields[1], new Entry(Long.parseLong(fields[2]), fields[3].equals("1"), Long.parseLong(fields[4])));
+                }
+            } catch (IOException | NumberFormatException e) {
+                logger.log(Level.WARNING, "Ignoring unreadable test history " + file, e);
+                entries.clear();
+            }
+        }
+        return new TestHistory(file, entries);
+    }
+
+    /**
+     * 파일이 바뀌지 않았으면 이전에 읽은 history 를 반환한다. (orderer 는 class 마다 호출되므로)
+     */
+    static TestHistory cached(Path file) {
+        FileTime modified;
+        try {
+            modified = Files.isRegularFile(file) ? Files.getLastModifiedTime(file) : FileTime.fromMillis(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Path key = file.toAbsolutePath().normalize();
+        return cache.compute(key, (path, cached) ->
+                cached != null && cached.modified.equals(modified) ? cached : new Cached(modified, load(file))).history;
+    }
+
+    /**
+     * 이번 실행에서 method 한 번 (반복 test 는 호출 한 번) 의 실행 시간과 실패 여부를 더한다.
+     */
+    void record(String className, String methodName, long nanos, boolean failed) {
+        if (file == null) {
+            return;
+        }
+        runs.computeIfAbsent(className, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(methodName, key -> new Run())
+                .add(nanos, failed);
+    }
+
+    /**
+     * 이번 실행에서 class 전체 (nested class 포함) 의 실행 시간과 실패 여부를 더한다.
+     */
+    public void recordClass(String className, long nanos, boolean failed) {
+        record(className, CLASS, nanos, failed);
+    }
+
+    public Optional<Entry> get(String className, String methodName) {
+        return Optional.ofNullable(entries.getOrDefault(className, Map.of()).get(methodName));
+    }
+
+    /**
+     * class 전체의 기록이 있으면 그 값, 없으면 method 기록을 합친 값 (시간은 합계, 하나라도 실패했으면 실패)
+     */
+    public Optional<Entry> get(String className) {
+        Map<String, Entry> methods = entries.get(className);
+        if (methods == null || methods.isEmpty()) {
+            return Optional.empty();
+        }
+        if (methods.containsKey(CLASS)) {
+            return Optional.of(methods.get(CLASS));
+        }
+        long nanos = 0;
+        boolean failed = false;
+        long count = 0;
+        for (Entry entry : methods.values()) {
+            nanos += entry.nanos();
+            failed |= entry.failed();
+            count = Math.max(count, entry.runs());
+        }
+        return Optional.of(new Entry(nanos, failed, count));
+    }
+
+    /**
+     * classNames (top-level class 이름) 와 그 nested class 의 기록만 other 의 것으로 바꾼 history
+     * (ShardedLauncher 처럼 여러 JVM 이 각자 다른 파일에 기록한 뒤 합칠 때)
+     */
+    public TestHistory replaceClasses(TestHistory other, Collection<String> classNames) {
+        Map<String, Map<String, Entry>> replaced = new TreeMap<>(entries);
+        other.entries.forEach((className, methods) -> {
+            int nested = className.indexOf('$');
+            if (classNames.contains(nested < 0 ? className : className.substring(0, nested))) {
+                replaced.put(className, methods);
+            }
+        });
+        return new TestHistory(file, replaced);
+    }
+
+    /**
+     * 읽은 (또는 합친) 기록에 이번 실행 결과를 합쳐 저장한다. (close 와 달리 실패를 예외로 알린다)
+     */
+    public void save() throws IOException {
+        if (file != null) {
+            save(merged());
+        }
+    }
+
+    /**
+     * 이번 실행 결과를 이전 기록과 합쳐 저장한다.
+     */
+    @Override
+    public void close() {
+        if (runs.isEmpty() || file == null) {
+            return;
+        }
+        try {
+            save(merged());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not save test history " + file, e);
+        }
+    }
+
+    private Map<String, Map<String, Entry>> merged() {
+        Map<String, Map<String, Entry>> merged = new TreeMap<>();
+        entries.forEach((className, methods) -> merged.put(className, new TreeMap<>(methods)));
+        runs.forEach((className, methods) -> methods.forEach((methodName, run) ->
+                merged.computeIfAbsent(className, key -> new TreeMap<>())
+                        .merge(methodName, run.toEntry(), (previous, current) -> previous.update(current))));
+        return merged;
+    }
+
+    private void save(Map<String, Map<String, Entry>> merged) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write("# class\tmethod\tnanos\tfailed\truns");
+                writer.newLine();
+                for (Map.Entry<String, Map<String, Entry>> type : merged.entrySet()) {
+                    for (Map.Entry<String, Entry> method : type.getValue().entrySet()) {
+                        Entry entry = method.getValue();
+                        writer.write(type.getKey() + "\t" + method.getKey() + "\t" + entry.nanos() + "\t"
+                                + (entry.failed() ? 1 : 0) + "\t" + entry.runs());
+                        writer.newLine();
+                    }
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * 실패한 것 먼저, 다음은 오래 걸린 것 먼저, 같으면 이름 순으로 정렬한다.
+     * 기록이 없는 항목은 기록이 있는 항목들의 중앙값으로 본다. (모두 없으면 이름 순)
+     */
+    static <T> void sortLongestFirst(List<T> items, Function<? super T, Optional<Entry>> history, Function<? super T, String> name) {
+        Map<T, Optional<Entry>> known = new IdentityHashMap<>();
+        List<Long> durations = new ArrayList<>();
+        for (T item : items) {
+            Optional<Entry> entry = history.apply(item);
+            known.put(item, entry);
+            entry.ifPresent(e -> durations.add(e.nanos()));
+        }
+        long median = median(durations);
+
+        items.sort(Comparator.<T, Boolean>comparing(item -> known.get(item).map(Entry::failed).orElse(false)).reversed()
+                .thenComparing(Comparator.<T>comparingLong(item -> known.get(item).map(Entry::nanos).orElse(median)).reversed())
+                .thenComparing(name));
+    }
+
+    private static long median(List<Long> values) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * @param nanos  실행 시간의 지수 이동 평균
+     * @param failed 마지막 실행에서 실패했는지
+     * @param runs   기록된 실행 수
+     */
+    public record Entry(long nanos, boolean failed, long runs) {
+
+        Entry update(Entry current) {
+            return new Entry(Math.round(ALPHA * current.nanos + (1 - ALPHA) * nanos), current.failed, runs + 1);
+        }
+    }
+
+    /**
+     * 이번 실행에서 method 하나의 합계
+     */
+    private static class Run {
+
+        private long nanos;
+        private boolean failed;
+
+        synchronized void add(long nanos, boolean failed) {
+            this.nanos += nanos;
+            this.failed |= failed;
+        }
+
+        synchronized Entry toEntry() {
+            return new Entry(nanos, failed, 1);
+        }
+    }
+
+    private record Cached(FileTime modified, TestHistory history) {
+    }
+}
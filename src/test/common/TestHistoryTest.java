@@ -0,0 +1,104 @@
+package common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestHistoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void failedFirstThenLongestFirstThenName() {
+        Map<String, TestHistory.Entry> history = Map.of(
+                "short", new TestHistory.Entry(10, false, 1),
+                "long", new TestHistory.Entry(100, false, 1),
+                "broken", new TestHistory.Entry(1, true, 1),
+                "middle", new TestHistory.Entry(50, false, 1));
+        List<String> names = new ArrayList<>(List.of("short", "unknown", "long", "middle", "broken", "a-middle"));
+
+        TestHistory.sortLongestFirst(names, name -> Optional.ofNullable(history.get(name)), name -> name);
+
+        // 기록이 없는 unknown, a-middle 은 중앙값 ((10 + 50) / 2 = 30) 으로 본다
+        assertEquals(List.of("broken", "long", "middle", "a-middle", "unknown", "short"), names);
+    }
+
+    @Test
+    void withoutHistoryOrdersByName() {
+        List<String> names = new ArrayList<>(List.of("c", "a", "b"));
+
+        TestHistory.sortLongestFirst(names, name -> Optional.empty(), name -> name);
+
+        assertEquals(List.of("a", "b", "c"), names);
+    }
+
+    @Test
+    void noneDoesNotRecord() {
+        TestHistory.NONE.record("A", "test", 600, true);
+        TestHistory.NONE.close();
+
+        assertEquals(Optional.empty(), TestHistory.NONE.get("A", "test"));
+        assertEquals(Optional.empty(), TestHistory.NONE.get("A"));
+    }
+
+    @Test
+    void closeMergesRunIntoMovingAverage() {
+        Path file = dir.resolve("history.tsv");
+        TestHistory first = TestHistory.load(file);
+        first.record("A", "test", 600, false);
+        first.record("A", "test", 400, false);
+        first.record("A", "other", 10, true);
+        first.close();
+
+        TestHistory second = TestHistory.load(file);
+        assertEquals(new TestHistory.Entry(1000, false, 1), second.get("A", "test").orElseThrow());
+        assertEquals(new TestHistory.Entry(1010, true, 1), second.get("A").orElseThrow());
+
+        second.record("A", "test", 2000, true);
+        second.close();
+
+        TestHistory third = TestHistory.load(file);
+        assertEquals(new TestHistory.Entry(1300, true, 2), third.get("A", "test").orElseThrow());
+        assertEquals(new TestHistory.Entry(10, true, 1), third.get("A", "other").orElseThrow());
+        assertTrue(third.get("B").isEmpty());
+    }
+
+    @Test
+    void classEntryWinsOverMethodSum() {
+        Path file = dir.resolve("history.tsv");
+        TestHistory first = TestHistory.load(file);
+        first.record("A", "test", 600, false);
+        first.record("A", "other", 400, false);
+        first.recordClass("A", 5000, true);
+        first.close();
+
+        assertEquals(new TestHistory.Entry(5000, true, 1), TestHistory.load(file).get("A").orElseThrow());
+    }
+
+    @Test
+    void replaceClassesKeepsNestedClasses() throws IOException {
+        Path file = dir.resolve("history.tsv");
+        TestHistory shard = TestHistory.load(dir.resolve("shard.tsv"));
+        shard.record("A", "test", 100, false);
+        shard.record("A$Inner", "test", 200, false);
+        shard.record("B", "test", 300, false);
+        shard.close();
+
+        TestHistory merged = TestHistory.load(file).replaceClasses(TestHistory.load(dir.resolve("shard.tsv")), List.of("A"));
+        merged.save();
+
+        TestHistory saved = TestHistory.load(file);
+        assertTrue(saved.get("A", "test").isPresent());
+        assertTrue(saved.get("A$Inner", "test").isPresent());
+        assertTrue(saved.get("B").isEmpty());
+    }
+}
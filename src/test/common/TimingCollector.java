@@ -0,0 +1,195 @@
+package common;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+
+/**
+ * test class -> test method -> MethodStats
+ * <p>
+ * 병렬 실행 중 측정이 서로를 기다리지 않도록 thread 마다 별도 buffer 에 기록하고,
+ * class 가 끝날 때 모든 buffer 에서 해당 class 의 값만 꺼내 합친다.
+ * buffer lock 은 기록하는 thread 와 합치는 thread 사이에서만 잡히므로 사실상 경합이 없다.
+ * 끝난 thread (test 마다 새로 만드는 virtual thread 등) 의 buffer 는 다 꺼내진 뒤 목록에서 지운다.
+ * <p>
+ * root context store 에 보관되며, class 단위로 보고되지 않은 나머지는 실행이 끝날 때 보고한다.
+ */
+class TimingCollector implements ExtensionContext.Store.CloseableResource {
+
+    private static final Logger logger = Logger.getLogger(TimingExtension.class.getName());
+
+    private final Queue<ThreadBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<ThreadBuffer> currentBuffer = ThreadLocal.withInitial(() -> {
+        ThreadBuffer buffer = new ThreadBuffer(Thread.currentThread());
+        buffers.add(buffer);
+        return buffer;
+    });
+
+    void start() {
+        ThreadBuffer buffer = currentBuffer.get();
+        buffer.startUsage.capture();
+        buffer.startNanos = System.nanoTime();
+    }
+
+    /**
+     * @param threadUsage 할당량 / CPU 시간을 이 thread 기준으로 기록할지 (본문이 다른 thread 에서 실행됐으면 false)
+     * @return start() 이후 경과 시간 (ns)
+     */
+    long stop(Class<?> testClass, String methodName, boolean threadUsage) {
+        long endNanos = System.nanoTime();
+        ThreadBuffer buffer = currentBuffer.get();
+        buffer.endUsage.capture();
+        long nanos = endNanos - buffer.startNanos;
+        synchronized (buffer) {
+            buffer.stats.computeIfAbsent(testClass, key -> new HashMap<>())
+                    .computeIfAbsent(methodName, key -> new MethodStats())
+                    .record(nanos, buffer.startUsage, buffer.endUsage, threadUsage);
+        }
+        return nanos;
+    }
+
+    void report(Class<?> testClass) {
+        Map<String, MethodStats> merged = new TreeMap<>();
+        for (Iterator<ThreadBuffer> iterator = buffers.iterator(); iterator.hasNext(); ) {
+            ThreadBuffer buffer = iterator.next();
+            Map<String, MethodStats> methods;
+            synchronized (buffer) {
+                methods = buffer.stats.remove(testClass);
+                // 끝난 thread 는 더 기록하지 않으므로 비었으면 다시 볼 필요가 없다
+                if (buffer.stats.isEmpty() && !buffer.owner.isAlive()) {
+                    iterator.remove();
+                }
+            }
+            if (methods != null) {
+                methods.forEach((methodName, methodStats) -> merged.merge(methodName, methodStats, MethodStats::merge));
+            }
+        }
+        merged.forEach((methodName, methodStats) -> log(testClass.getName(), methodName, methodStats));
+    }
+
+    int bufferCount() {
+        return buffers.size();
+    }
+
+    @Override
+    public void close() {
+        Map<Class<?>, Boolean> remaining = new HashMap<>();
+        for (ThreadBuffer buffer : buffers) {
+            synchronized (buffer) {
+                buffer.stats.keySet().forEach(testClass -> remaining.put(testClass, true));
+            }
+        }
+        remaining.keySet().forEach(this::report);
+    }
+
+    private static void log(String className, String methodName, MethodStats methodStats) {
+        LatencyHistogram histogram = methodStats.histogram;
+        logger.info(() -> String.format("Method [%s.%s] n=%d p50=%s p90=%s p99=%s max=%s %s",
+                className, methodName, histogram.getTotalCount(),
+                format(histogram.getValueAtPercentile(50)),
+                format(histogram.getValueAtPercentile(90)),
+                format(histogram.getValueAtPercentile(99)),
+                format(histogram.getMax()),
+                methodStats.usageSummary()));
+    }
+
+    static String format(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1f us", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format("%.2f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    /**
+     * 한 thread 만 기록하며, 읽을 때는 buffer 자체를 lock 으로 사용한다.
+     */
+    private static class ThreadBuffer {
+
+        final Thread owner;
+        final Map<Class<?>, Map<String, MethodStats>> stats = new HashMap<>();
+        final ResourceUsage startUsage = new ResourceUsage();
+        final ResourceUsage endUsage = new ResourceUsage();
+        long startNanos;
+
+        ThreadBuffer(Thread owner) {
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * thread-safe 하지 않음, ThreadBuffer lock 안에서만 접근한다.
+     */
+    static class MethodStats {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        /**
+         * 할당량 / CPU 시간을 잴 수 있었던 호출 수 (virtual thread, 지원하지 않는 JVM, 다른 thread 로 넘어간 호출은 빠진다)
+         */
+        private long allocationCount;
+        private long cpuCount;
+        private long allocatedBytes;
+        private long maxAllocatedBytes;
+        private long cpuNanos;
+        private long gcCount;
+        private long gcMillis;
+
+        void record(long nanos, ResourceUsage start, ResourceUsage end, boolean threadUsage) {
+            histogram.record(nanos);
+            if (threadUsage && start.allocatedBytes >= 0 && end.allocatedBytes >= 0) {
+                long allocated = end.allocatedBytes - start.allocatedBytes;
+                allocationCount++;
+                allocatedBytes += allocated;
+                maxAllocatedBytes = Math.max(maxAllocatedBytes, allocated);
+            }
+            if (threadUsage && start.cpuNanos >= 0 && end.cpuNanos >= 0) {
+                cpuCount++;
+                cpuNanos += end.cpuNanos - start.cpuNanos;
+            }
+            gcCount += end.gcCount - start.gcCount;
+            gcMillis += end.gcMillis - start.gcMillis;
+        }
+
+        MethodStats merge(MethodStats other) {
+            histogram.add(other.histogram);
+            allocationCount += other.allocationCount;
+            cpuCount += other.cpuCount;
+            allocatedBytes += other.allocatedBytes;
+            maxAllocatedBytes = Math.max(maxAllocatedBytes, other.maxAllocatedBytes);
+            cpuNanos += other.cpuNanos;
+            gcCount += other.gcCount;
+            gcMillis += other.gcMillis;
+            return this;
+        }
+
+        String usageSummary() {
+            String allocation = allocationCount == 0 ? "n/a"
+                    : formatBytes(allocatedBytes / allocationCount) + "/op (max " + formatBytes(maxAllocatedBytes) + ")";
+            String cpu = cpuCount == 0 ? "n/a" : format(cpuNanos / cpuCount) + "/op";
+            return String.format("alloc=%s cpu=%s gc=%d (%d ms)", allocation, cpu, gcCount, gcMillis);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingCollectorTest {
+
+    private static final Logger logger = Logger.getLogger(TimingExtension.class.getName());
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            messages.add(record.getMessage());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final TimingCollector collector = new TimingCollector();
+
+    static byte[] sink;
+
+    @BeforeEach
+    void addHandler() {
+        logger.addHandler(handler);
+    }
+
+    @AfterEach
+    void removeHandler() {
+        logger.removeHandler(handler);
+    }
+
+    @Test
+    void measuresAllocationOfTheThreadRunningTheBody() {
+        collector.start();
+        sink = new byte[4 << 20];
+        collector.stop(TimingCollectorTest.class, "body", true);
+
+        collector.report(TimingCollectorTest.class);
+
+        String message = messages.get(0);
+        assertTrue(message.contains("n=1"), message);
+        assertTrue(message.matches(".*alloc=4\\.\\d MB/op.*"), message);
+    }
+
+    @Test
+    void offloadedAndVirtualThreadInvocationsReportNoThreadUsage() throws InterruptedException {
+        collector.start();
+        sink = new byte[4 << 20];
+        collector.stop(TimingCollectorTest.class, "offloaded", false);
+        Thread.ofVirtual().start(() -> {
+            collector.start();
+            collector.stop(TimingCollectorTest.class, "virtual", true);
+        }).join();
+
+        collector.report(TimingCollectorTest.class);
+
+        assertEquals(2, messages.size());
+        assertTrue(messages.stream().allMatch(message -> message.contains("alloc=n/a cpu=n/a")), messages::toString);
+    }
+
+    @Test
+    void buffersOfFinishedThreadsAreDroppedOnceReported() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Thread.ofVirtual().start(() -> {
+                collector.start();
+                collector.stop(TimingCollectorTest.class, "virtual", true);
+            }).join();
+        }
+        collector.start();
+        collector.stop(String.class, "live", true);
+        assertEquals(101, collector.bufferCount());
+
+        collector.report(TimingCollectorTest.class);
+
+        assertEquals(1, collector.bufferCount());
+        assertTrue(messages.get(0).contains("n=100"), messages::toString);
+    }
+}
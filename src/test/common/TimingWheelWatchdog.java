@@ -0,0 +1,262 @@
+package common;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 하나의 daemon thread 가 모든 deadline 을 관리하는 hashed timing wheel
+ * <p>
+ * deadline 은 tick 단위 bucket 에 들어가고, worker 는 tick 마다 bucket 하나만 확인한다.
+ * 등록 / 취소는 lock 없이 queue 와 CAS 로 처리하므로 test thread 는 worker 를 기다리지 않는다.
+ * 등록된 deadline 이 없으면 worker 는 다음 등록까지 park 한다.
+ * <p>
+ * 발화 지연 (실제 발화 시각 - deadline) 은 histogram 에 기록하고 close 할 때 보고한다.
+ */
+public final class TimingWheelWatchdog implements ExtensionContext.Store.CloseableResource {
+
+    public static final long DEFAULT_TICK_MILLIS = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final Logger logger = Logger.getLogger(TimingWheelWatchdog.class.getName());
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int FIRING = 2;
+    private static final int FIRED = 3;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Timeout> registrations = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final AtomicLong scheduled = new AtomicLong();
+
+    private volatile boolean sleeping;
+    private volatile boolean closed;
+
+    // worker thread 전용
+    private long tick;
+    private int pending;
+    private final LatencyHistogram lags = new LatencyHistogram();
+
+    public TimingWheelWatchdog() {
+        this(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param wheelSize 2 의 거듭제곱으로 올림
+     */
+    public TimingWheelWatchdog(long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("wheelSize out of range: " + wheelSize);
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.worker = new Thread(this::run, "junit-watchdog");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * delay 뒤에 watchdog thread 에서 task 를 실행한다.
+     * task 는 짧게 끝나야 한다. (보통 Thread::interrupt)
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (closed) {
+            throw new IllegalStateException("watchdog is closed");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(delay));
+        registrations.add(timeout);
+        scheduled.incrementAndGet();
+        if (sleeping) {
+            LockSupport.unpark(worker);
+        }
+        return timeout;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (lags.getTotalCount() > 0) {
+            logger.info(() -> String.format("watchdog: scheduled=%d fired=%d lag p50=%.3fms p99=%.3fms max=%.3fms",
+                    scheduled.get(), lags.getTotalCount(),
+                    lags.getValueAtPercentile(50) / 1e6, lags.getValueAtPercentile(99) / 1e6, lags.getMax() / 1e6));
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            if (pending == 0 && registrations.isEmpty()) {
+                sleeping = true;
+                if (registrations.isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+                // 쉬는 동안 지나간 tick 의 bucket 은 모두 비어 있다
+                tick = Math.max(tick, (System.nanoTime() - startNanos) / tickNanos);
+                continue;
+            }
+            long tickEnd = startNanos + (tick + 1) * tickNanos;
+            long now;
+            while ((now = System.nanoTime()) < tickEnd && !closed) {
+                LockSupport.parkNanos(this, tickEnd - now);
+            }
+            transferRegistrations();
+            expire(wheel[(int) (tick & mask)], now);
+            tick++;
+        }
+    }
+
+    private void transferRegistrations() {
+        Timeout timeout;
+        while ((timeout = registrations.poll()) != null) {
+            if (timeout.state.get() == CANCELLED) {
+                continue;
+            }
+            long deadlineTick = Math.max(tick, (timeout.deadlineNanos - startNanos) / tickNanos);
+            timeout.rounds = (deadlineTick - tick) / wheel.length;
+            wheel[(int) (deadlineTick & mask)].add(timeout);
+            pending++;
+        }
+    }
+
+    private void expire(Bucket bucket, long now) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.state.get() == CANCELLED) {
+                bucket.remove(timeout);
+                pending--;
+            } else if (timeout.rounds > 0) {
+                timeout.rounds--;
+            } else if (timeout.deadlineNanos <= now) {
+                bucket.remove(timeout);
+                pending--;
+                fire(timeout, now);
+            }
+            timeout = next;
+        }
+    }
+
+    private void fire(Timeout timeout, long now) {
+        if (!timeout.state.compareAndSet(PENDING, FIRING)) {
+            return;
+        }
+        timeout.firedNanos = now;
+        try {
+            timeout.task.run();
+        } catch (Throwable t) {
+            logger.log(Level.WARNING, "watchdog task failed", t);
+        } finally {
+            timeout.state.set(FIRED);
+        }
+        lags.record(Math.max(0, now - timeout.deadlineNanos));
+    }
+
+    /**
+     * 등록된 deadline 하나
+     */
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private volatile long firedNanos;
+
+        // worker thread 전용
+        private long rounds;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * @return 이 호출로 발화를 막았으면 true. 이미 발화했거나 발화 중이면 task 가 끝날 때까지 기다린 뒤 false
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                return true;
+            }
+            while (state.get() == FIRING) {
+                Thread.onSpinWait();
+            }
+            return false;
+        }
+
+        public boolean isExpired() {
+            return state.get() >= FIRING;
+        }
+
+        /**
+         * @return 발화 시각 - deadline (ns), 발화하지 않았으면 -1
+         */
+        public long getLagNanos() {
+            return isExpired() ? Math.max(0, firedNanos - deadlineNanos) : -1;
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
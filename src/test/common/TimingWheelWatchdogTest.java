@@ -0,0 +1,93 @@
+package common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelWatchdogTest {
+
+    private final TimingWheelWatchdog watchdog = new TimingWheelWatchdog(1, TimeUnit.MILLISECONDS, 8);
+
+    @AfterEach
+    void close() {
+        watchdog.close();
+    }
+
+    @Test
+    void firesAfterDeadlineSpanningSeveralRounds() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        TimingWheelWatchdog.Timeout timeout = watchdog.schedule(latch::countDown, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(timeout.isExpired());
+        assertTrue(timeout.getLagNanos() >= 0);
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        TimingWheelWatchdog.Timeout timeout = watchdog.schedule(fired::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        Thread.sleep(50);
+        assertEquals(0, fired.get());
+        assertFalse(timeout.isExpired());
+        assertEquals(-1, timeout.getLagNanos());
+    }
+
+    @Test
+    void interruptsBlockedThread() {
+        TimingWheelWatchdog.Timeout timeout = watchdog.schedule(Thread.currentThread()::interrupt, 20, TimeUnit.MILLISECONDS);
+
+        assertThrows(InterruptedException.class, () -> Thread.sleep(5_000));
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void manyTimeoutsShareOneThread() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(42);
+        AtomicInteger fired = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(5_000);
+        List<TimingWheelWatchdog.Timeout> cancelled = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 2 == 0) {
+                watchdog.schedule(() -> {
+                    fired.incrementAndGet();
+                    latch.countDown();
+                }, random.nextInt(50), TimeUnit.MILLISECONDS);
+            } else {
+                cancelled.add(watchdog.schedule(fired::incrementAndGet, 1_000 + random.nextInt(1_000), TimeUnit.MILLISECONDS));
+            }
+        }
+        cancelled.forEach(timeout -> assertTrue(timeout.cancel()));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(5_000, fired.get());
+    }
+
+    @Test
+    void idleWatchdogWakesUpForNewTimeout() throws InterruptedException {
+        CountDownLatch first = new CountDownLatch(1);
+        watchdog.schedule(first::countDown, 1, TimeUnit.MILLISECONDS);
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+
+        Thread.sleep(50);
+        CountDownLatch second = new CountDownLatch(1);
+        long start = System.nanoTime();
+        watchdog.schedule(second::countDown, 20, TimeUnit.MILLISECONDS);
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+}
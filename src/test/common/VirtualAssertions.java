@@ -0,0 +1,123 @@
+package common;
+
+import org.junit.jupiter.api.AssertionFailureBuilder;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Assertions.assertTimeoutPreemptively 와 같은 동작을 하지만, 호출마다 platform thread 를 만들지 않고
+ * VirtualThreads.executor() 의 virtual thread 에서 실행한다.
+ * <p>
+ * 결과는 그대로 반환하고, executable 이 던진 예외는 감싸지 않고 다시 던진다.
+ * 시간을 넘기면 virtual thread 를 interrupt 하고 "execution timed out after N ms" 로 실패한다.
+ * (cause 에는 시간을 넘긴 virtual thread 의 stack trace 가 담긴다.)
+ * <p>
+ * 호출 비용이 작아서 반복문 안에서 assertion 마다 시간 제한을 걸어도 된다.
+ * ThreadLocal 에 기대는 코드는 원래 assertTimeoutPreemptively 처럼 호출한 thread 의 값을 볼 수 없다.
+ */
+public final class VirtualAssertions {
+
+    private VirtualAssertions() {
+    }
+
+    public static void assertTimeoutPreemptively(Duration timeout, Executable executable) {
+        assertTimeoutPreemptively(timeout, executable, (Object) null);
+    }
+
+    public static void assertTimeoutPreemptively(Duration timeout, Executable executable, String message) {
+        assertTimeoutPreemptively(timeout, executable, (Object) message);
+    }
+
+    public static void assertTimeoutPreemptively(Duration timeout, Executable executable, Supplier<String> messageSupplier) {
+        assertTimeoutPreemptively(timeout, executable, (Object) messageSupplier);
+    }
+
+    public static <T> T assertTimeoutPreemptively(Duration timeout, ThrowingSupplier<T> supplier) {
+        return assertTimeoutPreemptively(timeout, supplier, (Object) null);
+    }
+
+    public static <T> T assertTimeoutPreemptively(Duration timeout, ThrowingSupplier<T> supplier, String message) {
+        return assertTimeoutPreemptively(timeout, supplier, (Object) message);
+    }
+
+    public static <T> T assertTimeoutPreemptively(Duration timeout, ThrowingSupplier<T> supplier, Supplier<String> messageSupplier) {
+        return assertTimeoutPreemptively(timeout, supplier, (Object) messageSupplier);
+    }
+
+    private static void assertTimeoutPreemptively(Duration timeout, Executable executable, Object messageOrSupplier) {
+        assertTimeoutPreemptively(timeout, () -> {
+            executable.execute();
+            return null;
+        }, messageOrSupplier);
+    }
+
+    private static <T> T assertTimeoutPreemptively(Duration timeout, ThrowingSupplier<T> supplier, Object messageOrSupplier) {
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        FutureTask<T> task = new FutureTask<>(() -> {
+            runner.set(Thread.currentThread());
+            try {
+                return supplier.get();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowable(t);
+            }
+        });
+        VirtualThreads.executor().execute(task);
+
+        try {
+            return task.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // 실행 중인 thread 의 stack trace 는 interrupt 전에 떠 둔다
+            Thread thread = runner.get();
+            ExecutionTimeoutException cause = thread == null ? null : new ExecutionTimeoutException(thread);
+            task.cancel(true);
+            throw AssertionFailureBuilder.assertionFailure()
+                    .message(messageOrSupplier)
+                    .reason("execution timed out after " + timeout.toMillis() + " ms")
+                    .cause(cause)
+                    .build();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw sneakyThrow(cause instanceof UndeclaredThrowable ? cause.getCause() : cause);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            throw sneakyThrow(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException sneakyThrow(Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+    private static class ExecutionTimeoutException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        ExecutionTimeoutException(Thread thread) {
+            super("Execution timed out in thread " + thread.getName(), null, false, true);
+            setStackTrace(thread.getStackTrace());
+        }
+    }
+
+    /**
+     * Callable 로 던질 수 없는 Throwable 을 실어 나른다
+     */
+    private static class UndeclaredThrowable extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        UndeclaredThrowable(Throwable cause) {
+            super(null, cause, false, false);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package common;
+
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualAssertionsTest {
+
+    @Test
+    void returnsResultFromVirtualThread() {
+        Boolean virtual = VirtualAssertions.assertTimeoutPreemptively(ofSeconds(5), () -> Thread.currentThread().isVirtual());
+        assertTrue(virtual);
+    }
+
+    @Test
+    void propagatesCheckedExceptionUnwrapped() {
+        IOException expected = new IOException("disk");
+        IOException actual = assertThrows(IOException.class,
+                () -> VirtualAssertions.assertTimeoutPreemptively(ofSeconds(5), () -> {
+                    throw expected;
+                }));
+        assertSame(expected, actual);
+    }
+
+    @Test
+    void propagatesAssertionFailure() {
+        AssertionFailedError error = assertThrows(AssertionFailedError.class,
+                () -> VirtualAssertions.assertTimeoutPreemptively(ofSeconds(5), () -> assertEquals(1, 2)));
+        assertEquals("expected: <1> but was: <2>", error.getMessage());
+    }
+
+    @Test
+    void timesOutAndInterruptsVirtualThread() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AssertionFailedError error = assertThrows(AssertionFailedError.class,
+                () -> VirtualAssertions.assertTimeoutPreemptively(ofMillis(20), () -> {
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                }, () -> "latch"));
+
+        assertEquals("latch ==> execution timed out after 20 ms", error.getMessage());
+        assertTrue(error.getCause().getMessage().startsWith("Execution timed out in thread junit-virtual-"));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cheapEnoughForTightLoops() {
+        for (int i = 0; i < 10_000; i++) {
+            int value = i;
+            assertEquals(value + 1, VirtualAssertions.assertTimeoutPreemptively(ofSeconds(5), () -> value + 1));
+        }
+    }
+}
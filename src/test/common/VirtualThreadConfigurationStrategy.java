@@ -0,0 +1,70 @@
+package common;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * VirtualThreadExtension 과 함께 쓰는 parallel execution 설정
+ * <p>
+ * JUnit 5.9 의 worker 는 test 를 기다리는 동안에도 node 하나를 점유하고, ForkJoinPool 은 막힌 worker 를 거의 보충하지 않는다.
+ * 따라서 동시에 기다릴 수 있는 test 수 = worker 수 이다.
+ * 실제 test 코드는 CPU 수 만큼의 carrier 위에서 돌기 때문에 worker 는 CPU 수보다 훨씬 많이 두어도 된다.
+ * <pre>
+ * junit.jupiter.execution.parallel.config.strategy = custom
+ * junit.jupiter.execution.parallel.config.custom.class = common.VirtualThreadConfigurationStrategy
+ * junit.jupiter.execution.parallel.config.virtual.parallelism = 64     (default: 256)
+ * junit.jupiter.execution.parallel.config.virtual.max-pool-size = 1024 (default: 1024)
+ * </pre>
+ */
+public class VirtualThreadConfigurationStrategy implements ParallelExecutionConfigurationStrategy {
+
+    public static final String PARALLELISM = "virtual.parallelism";
+    public static final String MAX_POOL_SIZE = "virtual.max-pool-size";
+
+    private static final int DEFAULT_PARALLELISM = 256;
+    private static final int DEFAULT_MAX_POOL_SIZE = 1024;
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        int parallelism = configurationParameters.get(PARALLELISM, Integer::valueOf)
+                .orElse(DEFAULT_PARALLELISM);
+        int maxPoolSize = configurationParameters.get(MAX_POOL_SIZE, Integer::valueOf)
+                .orElse(DEFAULT_MAX_POOL_SIZE);
+
+        return new ParallelExecutionConfiguration() {
+            @Override
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            @Override
+            public int getMinimumRunnable() {
+                return 1;
+            }
+
+            @Override
+            public int getMaxPoolSize() {
+                return Math.max(parallelism, maxPoolSize);
+            }
+
+            @Override
+            public int getCorePoolSize() {
+                return parallelism;
+            }
+
+            @Override
+            public int getKeepAliveSeconds() {
+                return 30;
+            }
+
+            @Override
+            public Predicate<? super ForkJoinPool> getSaturatePredicate() {
+                return pool -> true;
+            }
+        };
+    }
+}
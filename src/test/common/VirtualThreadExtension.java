@@ -0,0 +1,56 @@
+package common;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * test method 본문을 virtual thread 에서 실행한다. (lifecycle method 는 원래 thread 에서 실행)
+ * <p>
+ * platform worker 는 본문이 끝날 때까지 결과를 기다리며 점유된 채로 남는다. (sleep / I/O 로 막힌 test 도 worker 하나씩 차지)
+ * 본문은 CPU 수 만큼의 carrier 위에서 돌기 때문에 worker 를 CPU 수보다 훨씬 많이 두어도 된다는 것이 이점이다.
+ * @ResourceLock 은 platform 이 test 실행 전후로 잡고 놓으므로 그대로 지켜진다.
+ * @RestoreSystemProperties 의 journal 은 virtual thread 로 넘겨 준다.
+ * <p>
+ * 동시에 기다릴 수 있는 test 수는 platform worker 수로 정해지므로 VirtualThreadConfigurationStrategy 와 함께 쓴다.
+ */
+public class VirtualThreadExtension implements InvocationInterceptor {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(VirtualThreadExtension.class);
+    private static final String OFFLOADED = "offloaded";
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        proceedOnVirtualThread(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        proceedOnVirtualThread(invocation, extensionContext);
+    }
+
+    /**
+     * 이 호출의 본문을 다른 (virtual) thread 로 넘겼는지. 바깥 interceptor 가 thread 기준 측정값을 버릴 때 쓴다.
+     */
+    static boolean isOffloaded(ExtensionContext extensionContext) {
+        return extensionContext.getStore(NAMESPACE).get(OFFLOADED) != null;
+    }
+
+    private static <T> T proceedOnVirtualThread(Invocation<T> invocation, ExtensionContext extensionContext) throws Throwable {
+        extensionContext.getStore(NAMESPACE).put(OFFLOADED, Boolean.TRUE);
+        return VirtualThreads.call(JournalingProperties.propagateCurrent(() -> {
+            try {
+                return invocation.proceed();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        }));
+    }
+}
@@ -0,0 +1,79 @@
+package common;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+
+/**
+ * test 코드를 실행할 virtual thread executor (JVM 당 하나)
+ * <p>
+ * carrier thread 는 JVM 전체가 함께 쓰는 JDK scheduler 의 것이다. (default: CPU 수)
+ * scheduler 는 첫 virtual thread 를 만들 때 설정을 읽으므로 carrier 수를 바꾸려면 JVM option 으로 지정한다.
+ * <pre>
+ * -Djdk.virtualThreadScheduler.parallelism=4 -Djdk.virtualThreadScheduler.maxPoolSize=4
+ * </pre>
+ */
+public final class VirtualThreads {
+
+    private static volatile ExecutorService executor;
+
+    private VirtualThreads() {
+    }
+
+    public static ExecutorService executor() {
+        ExecutorService result = executor;
+        if (result == null) {
+            synchronized (VirtualThreads.class) {
+                result = executor;
+                if (result == null) {
+                    result = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("junit-virtual-", 0).factory());
+                    executor = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * callable 을 virtual thread 에서 실행하고 결과를 기다린다.
+     * <p>
+     * fork/join worker 에서 호출하면 ForkJoinPool.managedBlock 으로 기다린다. 기다리는 동안에도 worker 는 점유된 채이고,
+     * JUnit 의 pool 설정 (saturate) 에서는 대신할 worker 가 거의 추가되지 않는다.
+     * 기다리는 thread 가 interrupt 되면 virtual thread 도 interrupt 한다.
+     *
+     * @throws Throwable callable 이 던진 예외 그대로
+     */
+    public static <T> T call(Callable<T> callable) throws Throwable {
+        FutureTask<T> task = new FutureTask<>(callable);
+        executor().execute(task);
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    try {
+                        task.get();
+                    } catch (ExecutionException ignored) {
+                        // get() 에서 다시 꺼낸다
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return task.isDone();
+                }
+            });
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            throw e;
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+}
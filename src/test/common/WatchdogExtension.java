@@ -0,0 +1,95 @@
+package common;
+
+import anno.WatchdogTimeout;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @WatchdogTimeout 이 붙은 test 를 같은 thread 에서 실행하고, deadline 은 root store 에 있는 TimingWheelWatchdog 하나가 감시한다.
+ * <p>
+ * 시간을 넘기면 watchdog 이 test thread 를 interrupt 한다. test 가 끝난 뒤 interrupt flag 를 지우고
+ * TimeoutException 을 던지며, 발화 지연은 report entry (watchdog.lag) 로 남긴다.
+ * interrupt 에 반응하지 않는 test 는 끝날 때까지 기다린 뒤 실패한다. (@Timeout 의 SAME_THREAD 와 같음)
+ * <p>
+ * tick 크기는 configuration parameter junit.watchdog.tick.ms (default: 10) 로 지정한다.
+ */
+public class WatchdogExtension implements InvocationInterceptor {
+
+    public static final String TICK = "junit.watchdog.tick.ms";
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(WatchdogExtension.class);
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        intercept(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        intercept(invocation, extensionContext);
+    }
+
+    @Override
+    public <T> T interceptTestFactoryMethod(Invocation<T> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        return intercept(invocation, extensionContext);
+    }
+
+    private <T> T intercept(Invocation<T> invocation, ExtensionContext context) throws Throwable {
+        Optional<WatchdogTimeout> annotation = findTimeout(context);
+        if (annotation.isEmpty()) {
+            return invocation.proceed();
+        }
+        long timeoutNanos = annotation.get().unit().toNanos(annotation.get().value());
+        Thread testThread = Thread.currentThread();
+        TimingWheelWatchdog.Timeout timeout = getWatchdog(context).schedule(testThread::interrupt, timeoutNanos, TimeUnit.NANOSECONDS);
+
+        T result = null;
+        Throwable failure = null;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable t) {
+            failure = t;
+        }
+        if (timeout.cancel()) {
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+
+        Thread.interrupted();
+        double lagMillis = timeout.getLagNanos() / 1e6;
+        context.publishReportEntry("watchdog.lag", String.format("%.3f ms", lagMillis));
+        TimeoutException exception = new TimeoutException(String.format("%s timed out after %d ms (watchdog lag %.3f ms)",
+                context.getRequiredTestMethod().getName(), TimeUnit.NANOSECONDS.toMillis(timeoutNanos), lagMillis));
+        if (failure != null) {
+            exception.addSuppressed(failure);
+        }
+        throw exception;
+    }
+
+    private Optional<WatchdogTimeout> findTimeout(ExtensionContext context) {
+        Optional<WatchdogTimeout> annotation = AnnotationSupport.findAnnotation(context.getTestMethod(), WatchdogTimeout.class);
+        for (Class<?> type = context.getRequiredTestClass(); annotation.isEmpty() && type != null; type = type.getEnclosingClass()) {
+            annotation = AnnotationSupport.findAnnotation(type, WatchdogTimeout.class);
+        }
+        return annotation;
+    }
+
+    private TimingWheelWatchdog getWatchdog(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(TimingWheelWatchdog.class, key -> {
+            long tickMillis = context.getConfigurationParameter(TICK, Long::valueOf).orElse(TimingWheelWatchdog.DEFAULT_TICK_MILLIS);
+            return new TimingWheelWatchdog(tickMillis, TimeUnit.MILLISECONDS, TimingWheelWatchdog.DEFAULT_WHEEL_SIZE);
+        }, TimingWheelWatchdog.class);
+    }
+}
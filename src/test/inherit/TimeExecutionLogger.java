@@ -4,6 +4,9 @@ import common.TimingExtension;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+/**
+ * 구현한 test class 의 method 별 실행 시간 분포, 할당량, CPU 시간, GC 를 기록한다. (TimingExtension)
+ */
 @Tag("timed")
 @ExtendWith(TimingExtension.class)
 public interface TimeExecutionLogger {
@@ -0,0 +1,265 @@
+package launcher;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * TestReporter 로 publish 된 report entry 를 test thread 밖에서 JSONL 파일에 쓰는 listener
+ * <p>
+ * META-INF/services 로 등록되어 있고, junit.reporter.sink.file 이 설정된 실행에서만 동작한다. (빈 값이면 동작하지 않는다)
+ * <pre>
+ * {"uniqueId":"[engine:junit-jupiter]/...","timestamp":"2026-10-17T20:31:02.118","entries":{"key":"value"}}
+ * </pre>
+ * test thread 는 entry 를 BoundedMpscQueue 에 넣기만 하고, writer thread 가 batch 로 꺼내 JSON 으로 만들어 쓴다.
+ * queue 가 가득 차면 test thread 는 writer 가 자리를 비울 때까지 잠깐씩 기다린다. (entry 를 버리지 않고 memory 는 capacity 로 고정)
+ * 파일 쓰기가 실패하면 이후 entry 는 버리고, 실행이 끝날 때 경고를 남긴다.
+ */
+public final class AsyncReportEntryListener implements TestExecutionListener {
+
+    public static final String FILE = "junit.reporter.sink.file";
+    public static final String CAPACITY = "junit.reporter.sink.capacity";
+
+    static final int DEFAULT_CAPACITY = 1 << 14;
+    static final int BATCH_SIZE = 1024;
+
+    private static final Logger logger = Logger.getLogger(AsyncReportEntryListener.class.getName());
+
+    private volatile Sink sink;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        ConfigurationParameters parameters = testPlan.getConfigurationParameters();
+        Optional<String> file = parameters.get(FILE).filter(value -> !value.isBlank());
+        if (file.isEmpty()) {
+            return;
+        }
+        int capacity = parameters.get(CAPACITY, value -> Integer.parseInt(value.trim())).orElse(DEFAULT_CAPACITY);
+        try {
+            sink = new Sink(Path.of(file.get()), capacity);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not open report entry sink " + file.get(), e);
+        }
+    }
+
+    @Override
+    public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+        Sink current = sink;
+        if (current != null) {
+            current.publish(new Entry(testIdentifier.getUniqueId(), entry));
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        Sink current = sink;
+        sink = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private record Entry(String uniqueId, ReportEntry reportEntry) {
+    }
+
+    /**
+     * 실행 하나 동안의 queue, writer thread, 파일
+     */
+    private static final class Sink implements Runnable {
+
+        private static final int SPINS = 100;
+        private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+        private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+        private final Path file;
+        private final BoundedMpscQueue<Entry> queue;
+        private final Writer out;
+        private final Thread writer;
+        private final LongAdder waits = new LongAdder();
+        private final StringBuilder line = new StringBuilder(256);
+
+        private volatile boolean closed;
+        private volatile boolean idle;
+
+        /**
+         * writer thread 만 접근
+         */
+        private long written;
+        private long batches;
+        private IOException failure;
+
+        Sink(Path file, int capacity) throws IOException {
+            this.file = file;
+            this.queue = new BoundedMpscQueue<>(capacity);
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), 1 << 16);
+            this.writer = new Thread(this, "report-entry-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        /**
+         * test thread 에서 호출되며 I/O 를 하지 않는다. queue 가 가득 차면 자리가 날 때까지 spin / park 한다.
+         */
+        void publish(Entry entry) {
+            if (queue.offer(entry)) {
+                wakeWriter();
+                return;
+            }
+            waits.increment();
+            for (int spins = 0; !queue.offer(entry); spins++) {
+                LockSupport.unpark(writer);
+                if (closed) {
+                    return;
+                }
+                if (spins < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(this, FULL_PARK_NANOS);
+                }
+            }
+            wakeWriter();
+        }
+
+        private void wakeWriter() {
+            if (idle) {
+                LockSupport.unpark(writer);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                if (queue.drain(this::write, BATCH_SIZE) > 0) {
+                    batches++;
+                    continue;
+                }
+                flush();
+                if (closed && queue.isEmpty()) {
+                    break;
+                }
+                idle = true;
+                if (queue.isEmpty() && !closed) {
+                    // 깨우는 신호를 놓쳐도 IDLE_PARK_NANOS 뒤에는 다시 확인한다
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                failed(e);
+            }
+        }
+
+        private void write(Entry entry) {
+            if (failure != null) {
+                return;
+            }
+            ReportEntry reportEntry = entry.reportEntry();
+            line.setLength(0);
+            line.append("{\"uniqueId\":");
+            appendString(entry.uniqueId());
+            line.append(",\"timestamp\":");
+            appendString(reportEntry.getTimestamp().toString());
+            line.append(",\"entries\":{");
+            boolean first = true;
+            for (Map.Entry<String, String> keyValue : reportEntry.getKeyValuePairs().entrySet()) {
+                if (!first) {
+                    line.append(',');
+                }
+                first = false;
+                appendString(keyValue.getKey());
+                line.append(':');
+                appendString(keyValue.getValue());
+            }
+            line.append("}}\n");
+            try {
+                out.append(line);
+                written++;
+            } catch (IOException e) {
+                failed(e);
+            }
+        }
+
+        private void flush() {
+            if (failure != null) {
+                return;
+            }
+            try {
+                out.flush();
+            } catch (IOException e) {
+                failed(e);
+            }
+        }
+
+        private void failed(IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        private void appendString(String value) {
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\t' -> line.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            line.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            line.append(c);
+                        }
+                    }
+                }
+            }
+            line.append('"');
+        }
+
+        /**
+         * queue 에 남은 entry 를 모두 쓰고 파일을 닫을 때까지 기다린다.
+         */
+        void close() {
+            closed = true;
+            LockSupport.unpark(writer);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warning(() -> "Interrupted while closing report entry sink " + file);
+                return;
+            }
+            if (failure != null) {
+                logger.log(Level.WARNING, "Could not write report entries to " + file + ", " + written + " written", failure);
+                return;
+            }
+            logger.info(() -> String.format("%d report entries written to %s in %d batches, %d publishes waited for queue space",
+                    written, file, batches, waits.sum()));
+        }
+    }
+}
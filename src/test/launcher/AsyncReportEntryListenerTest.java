@@ -0,0 +1,85 @@
+package launcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+class AsyncReportEntryListenerTest {
+
+    @Test
+    void writesPublishedEntriesAsJsonLines(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("reports").resolve("entries.jsonl");
+
+        // service 로 등록된 listener 가 설정을 보고 켜진다
+        LauncherFactory.create().execute(request()
+                .selectors(DiscoverySelectors.selectClass("TestReporterDemo"))
+                .configurationParameter(AsyncReportEntryListener.FILE, file.toString())
+                .configurationParameter(AsyncReportEntryListener.CAPACITY, "2")
+                .build());
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertTrue(lines.stream().allMatch(line -> line.startsWith("{\"uniqueId\":\"[engine:junit-jupiter]/[class:TestReporterDemo]/")));
+        assertTrue(lines.stream().anyMatch(line -> line.endsWith("\"entries\":{\"value\":\"a status message\"}}")));
+        assertTrue(lines.stream().anyMatch(line -> line.endsWith("\"entries\":{\"a key\":\"a value\"}}")));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"user name\":\"kghworks\"")));
+    }
+
+    @Test
+    void queueKeepsEveryProducersOrderWhileFull() throws Exception {
+        BoundedMpscQueue<long[]> queue = new BoundedMpscQueue<>(6);
+        int producers = 4;
+        int perProducer = 5_000;
+        assertEquals(8, queue.capacity());
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                futures.add(executor.submit(() -> {
+                    for (long i = 0; i < perProducer; i++) {
+                        long[] element = {producer, i};
+                        while (!queue.offer(element)) {
+                            if (Thread.currentThread().isInterrupted()) {
+                                return;
+                            }
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+
+            long[] next = new long[producers];
+            long received = 0;
+            while (received < (long) producers * perProducer) {
+                int drained = queue.drain(element -> assertEquals(next[(int) element[0]]++, element[1]), 3);
+                if (drained == 0) {
+                    Thread.yield();
+                }
+                received += drained;
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertTrue(queue.isEmpty());
+            assertArrayEquals(new long[]{perProducer, perProducer, perProducer, perProducer}, next);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
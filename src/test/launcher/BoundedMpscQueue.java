@@ -0,0 +1,101 @@
+package launcher;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 여러 thread 가 넣고 한 thread 만 꺼내는 크기 고정 queue (lock 없음, ring buffer)
+ * <p>
+ * slot 마다 sequence 를 두어 (Vyukov bounded queue) producer 는 tail 을 CAS 로 하나 차지한 뒤
+ * 값을 쓰고 sequence 를 올려 공개한다. consumer 는 sequence 가 올라간 slot 만 꺼내고 한 바퀴 뒤의 sequence 로 되돌린다.
+ * 가득 차면 offer 가 false 를 돌려주며, 기다릴지 버릴지는 호출하는 쪽이 정한다.
+ */
+final class BoundedMpscQueue<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * consumer thread 만 접근
+     */
+    private long head;
+
+    /**
+     * @param capacity 2 의 거듭제곱으로 올림
+     */
+    BoundedMpscQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.setPlain(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return 가득 차 있으면 false
+     */
+    boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.setPlain(index, element);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * consumer thread 에서만 호출한다.
+     *
+     * @return 최대 max 개를 꺼내 action 에 넘기고, 꺼낸 개수
+     */
+    int drain(Consumer<? super E> action, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (head & mask);
+            if (sequences.getAcquire(index) != head + 1) {
+                break;
+            }
+            E element = elements.getPlain(index);
+            elements.setPlain(index, null);
+            sequences.setRelease(index, head + mask + 1);
+            head++;
+            drained++;
+            action.accept(element);
+        }
+        return drained;
+    }
+
+    /**
+     * consumer thread 에서만 호출한다.
+     */
+    boolean isEmpty() {
+        return sequences.getAcquire((int) (head & mask)) != head + 1;
+    }
+}
@@ -0,0 +1,314 @@
+package launcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * fork 하는 test JVM 의 시작 시간을 줄이기 위한 AppCDS archive (JDK dynamic archive)
+ * <p>
+ * CDS 는 jar 에 있는 class 만 archive 하므로 (class path 에 비어 있지 않은 directory 가 있으면 만들지 않는다)
+ * class path 의 directory (out/main, out/test) 를 classes.jar 하나로 묶고, 그 jar 와 lib/ jar 로
+ * ForkedTestRunner 를 한 번 실행해 (-XX:ArchiveClassesAtExit) 실행 중 load 된 platform / test class 를 archive 한다.
+ * 학습에는 JUnit platform 과 Jupiter engine 을 load 하는 작은 TrainingProbe 만 쓴다. (시작 비용은 대부분 여기서 나온다)
+ * 이후 JVM 은 -XX:SharedArchiveFile 로 parse / verify 가 끝난 class 를 바로 mapping 한다.
+ * <p>
+ * directory 에 만들어지는 파일
+ * <pre>
+ * classes.jar    class path directory 를 묶은 jar
+ * tests.jsa      archive
+ * classpath.txt  원래 class path, archive 용 class path, class path fingerprint (한 줄씩)
+ * training.log   학습 실행의 stdout / stderr
+ * </pre>
+ * 원래 class path, jar, directory 의 class 내용이 바뀌면 isUpToDate 가 false 가 되고 다시 만들어야 한다.
+ * directory 는 수정 시각이 아니라 내용으로 비교하므로 같은 source 를 다시 compile 한 것만으로는 바뀌지 않는다.
+ * (archive 를 만든 뒤 jar 가 바뀌면 JVM 은 경고 없이 archive 를 쓰지 않는다, -Xshare:auto)
+ * class 를 archive 하려면 jar 여야 하므로 (class path 에 비어 있지 않은 directory 가 있으면 JVM 이 archive 를 만들지 않는다)
+ * 바뀐 test class 를 반영하려면 다시 만들 수밖에 없다.
+ * <pre>
+ * java -cp ... launcher.CdsArchive build   cds [class...]
+ * java -cp ... launcher.CdsArchive measure cds [--runs 5] class...
+ * </pre>
+ */
+public final class CdsArchive {
+
+    static final String ARCHIVE = "tests.jsa";
+    static final String CLASSES_JAR = "classes.jar";
+    static final String CLASS_PATH = "classpath.txt";
+    static final String TRAINING_LOG = "training.log";
+
+    static final String RUNS = "--runs";
+
+    /**
+     * class 를 지정하지 않고 만들 때 학습에 쓰는 class
+     */
+    static final List<String> TRAINING_CLASSES = List.of(TrainingProbe.class.getName());
+
+    private static final Logger logger = Logger.getLogger(CdsArchive.class.getName());
+
+    private final Path directory;
+
+    public CdsArchive(Path directory) {
+        this.directory = directory.toAbsolutePath();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2 || !(args[0].equals("build") || args[0].equals("measure"))) {
+            System.err.println("usage: CdsArchive build <archive dir> [class...]");
+            System.err.println("       CdsArchive measure <archive dir> [--runs n] class...");
+            System.exit(2);
+        }
+        CdsArchive archive = new CdsArchive(Path.of(args[1]));
+        int runs = 5;
+        List<String> classNames = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals(RUNS)) {
+                runs = Integer.parseInt(args[++i]);
+            } else {
+                classNames.add(args[i]);
+            }
+        }
+
+        List<String> jvmArguments = ShardedLauncher.forwardedJvmArguments();
+        List<String> classPath = ShardedLauncher.classPath();
+        if (args[0].equals("build") || !archive.isUpToDate(classPath)) {
+            archive.build(jvmArguments, classPath, classNames.isEmpty() ? TRAINING_CLASSES : classNames);
+        }
+        if (args[0].equals("measure")) {
+            archive.measure(jvmArguments, classPath, classNames, runs);
+        }
+    }
+
+    /**
+     * classPath 로 만든 archive 가 있고, 그 뒤로 class path 의 내용이 바뀌지 않았는지
+     */
+    public boolean isUpToDate(List<String> classPath) throws IOException {
+        Path description = directory.resolve(CLASS_PATH);
+        if (!Files.exists(directory.resolve(ARCHIVE)) || !Files.exists(directory.resolve(CLASSES_JAR)) || !Files.exists(description)) {
+            return false;
+        }
+        List<String> lines = Files.readAllLines(description, StandardCharsets.UTF_8);
+        return lines.size() == 3
+                && lines.get(0).equals(String.join(File.pathSeparator, classPath))
+                && lines.get(2).equals(fingerprint(classPath));
+    }
+
+    /**
+     * classPath 의 directory 를 classes.jar 로 묶고, trainingClasses 를 실행해 archive 를 만든다.
+     * 학습 실행은 history / 결과 파일을 쓰지 않는다. (ShardedLauncher.withoutOutputFiles)
+     */
+    public void build(List<String> jvmArguments, List<String> classPath, List<String> trainingClasses)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Path archive = directory.resolve(ARCHIVE);
+        Files.deleteIfExists(archive);
+        Files.deleteIfExists(directory.resolve(CLASS_PATH));
+
+        String fingerprint = fingerprint(classPath);
+        writeJar(directories(classPath), directory.resolve(CLASSES_JAR));
+        List<String> archivedClassPath = archivedClassPath(classPath);
+
+        List<String> command = new ArrayList<>();
+        command.add(ShardedLauncher.javaExecutable());
+        command.addAll(ShardedLauncher.withoutOutputFiles(jvmArguments));
+        command.add("-XX:ArchiveClassesAtExit=" + archive);
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, archivedClassPath));
+        command.add(ForkedTestRunner.class.getName());
+        command.addAll(trainingClasses);
+        Path log = directory.resolve(TRAINING_LOG);
+        int exitCode = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start()
+                .waitFor();
+        if (exitCode != 0 || !Files.exists(archive)) {
+            throw new IOException("Could not create CDS archive " + archive + " (exit code " + exitCode + "), see " + log);
+        }
+
+        Files.write(directory.resolve(CLASS_PATH), List.of(String.join(File.pathSeparator, classPath),
+                String.join(File.pathSeparator, archivedClassPath), fingerprint), StandardCharsets.UTF_8);
+        logger.info(() -> String.format("CDS archive %s (%d KB) built from %d classes in %d ms", archive,
+                archive.toFile().length() / 1024, trainingClasses.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    /**
+     * archive 를 쓰는 JVM 의 class path (classes.jar 와 원래 class path 의 jar)
+     */
+    public List<String> classPath() throws IOException {
+        List<String> lines = Files.readAllLines(directory.resolve(CLASS_PATH), StandardCharsets.UTF_8);
+        return Arrays.asList(lines.get(1).split(File.pathSeparator));
+    }
+
+    public List<String> jvmArguments() {
+        return List.of("-XX:SharedArchiveFile=" + directory.resolve(ARCHIVE), "-Xshare:auto");
+    }
+
+    /**
+     * 같은 class 를 archive 없이 / 있이 번갈아 runs 번씩 실행해 JVM 시작부터 첫 test 시작, 종료까지의 시간 중앙값을 출력한다.
+     */
+    void measure(List<String> jvmArguments, List<String> classPath, List<String> classNames, int runs)
+            throws IOException, InterruptedException {
+        List<String> sharedArguments = new ArrayList<>(jvmArguments);
+        sharedArguments.addAll(jvmArguments());
+        long[][] plain = new long[2][runs];
+        long[][] shared = new long[2][runs];
+        for (int i = 0; i < runs; i++) {
+            time(jvmArguments, classPath, classNames, plain, i);
+            time(sharedArguments, classPath(), classNames, shared, i);
+        }
+        System.out.printf("%-10s %18s %12s%n", "", "first test (ms)", "total (ms)");
+        System.out.printf("%-10s %18d %12d%n", "plain", median(plain[0]), median(plain[1]));
+        System.out.printf("%-10s %18d %12d%n", "cds", median(shared[0]), median(shared[1]));
+    }
+
+    private static void time(List<String> jvmArguments, List<String> classPath, List<String> classNames, long[][] result, int run)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(ShardedLauncher.javaExecutable());
+        command.addAll(jvmArguments);
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, classPath));
+        command.add(ForkedTestRunner.class.getName());
+        command.addAll(classNames);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        long firstTest = -1;
+        try (BufferedReader events = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = events.readLine(); line != null; line = events.readLine()) {
+                if (firstTest < 0 && line.startsWith(ForkedTestRunner.STARTED + "\t" + ForkedTestRunner.TEST + "\t")) {
+                    firstTest = System.nanoTime() - start;
+                }
+            }
+        }
+        process.waitFor();
+        result[0][run] = TimeUnit.NANOSECONDS.toMillis(firstTest);
+        result[1][run] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private List<String> archivedClassPath(List<String> classPath) {
+        List<String> archived = new ArrayList<>();
+        boolean jarAdded = false;
+        for (String entry : classPath) {
+            if (!Files.isDirectory(Path.of(entry))) {
+                archived.add(entry);
+            } else if (!jarAdded) {
+                archived.add(directory.resolve(CLASSES_JAR).toString());
+                jarAdded = true;
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * class path 의 hash. directory 는 파일 이름과 내용으로, jar 는 크기와 수정 시각으로 만든다.
+     */
+    static String fingerprint(List<String> classPath) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String entry : classPath) {
+            Path root = Path.of(entry);
+            if (Files.isDirectory(root)) {
+                try (Stream<Path> files = Files.walk(root)) {
+                    for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                        digest.update(root.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                        digest.update(Files.readAllBytes(file));
+                    }
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            } else if (Files.isRegularFile(root)) {
+                digest.update((entry + "\t" + Files.size(root) + "\t" + Files.getLastModifiedTime(root).toMillis())
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static List<Path> directories(List<String> classPath) {
+        return classPath.stream().map(Path::of).filter(Files::isDirectory).toList();
+    }
+
+    /**
+     * directory 의 파일을 class path 순서대로 (앞의 것이 우선) jar 하나에 쓴다.
+     */
+    private static void writeJar(List<Path> directories, Path jar) throws IOException {
+        Path temporary = Files.createTempFile(jar.getParent(), CLASSES_JAR, ".tmp");
+        try {
+            Set<String> written = new HashSet<>();
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(temporary))) {
+                for (Path root : directories) {
+                    try (Stream<Path> files = Files.walk(root)) {
+                        for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                            String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+                            if (written.add(name)) {
+                                writeEntry(out, name, file);
+                            }
+                        }
+                    } catch (UncheckedIOException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+            Files.move(temporary, jar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeEntry(JarOutputStream out, String name, Path file) throws IOException {
+        JarEntry entry = new JarEntry(name);
+        FileTime modified = Files.getLastModifiedTime(file);
+        entry.setLastModifiedTime(modified);
+        out.putNextEntry(entry);
+        Files.copy(file, out);
+        out.closeEntry();
+    }
+
+    /**
+     * 학습 실행에서 launcher, Jupiter engine, assertion class 를 load 한다.
+     */
+    static class TrainingProbe {
+
+        @Test
+        void loadsPlatform() {
+            assertEquals(2, 1 + 1);
+        }
+    }
+}
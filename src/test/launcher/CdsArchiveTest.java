@@ -0,0 +1,63 @@
+package launcher;
+
+import example.Calculator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static launcher.ClassDirectories.copyTree;
+import static launcher.ClassDirectories.location;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CdsArchiveTest {
+
+    @Test
+    void buildsArchiveUsedByForkedJvm(@TempDir Path dir) throws IOException, InterruptedException, URISyntaxException {
+        // 실제 out directory 를 건드리지 않도록 복사본과 원래 class path 의 jar 로 만든다
+        Path mainClasses = copyTree(location(Calculator.class), dir.resolve("main"));
+        Path testClasses = copyTree(location(CdsArchiveTest.class), dir.resolve("test"));
+        List<String> classPath = new ArrayList<>(List.of(mainClasses.toString(), testClasses.toString()));
+        ShardedLauncher.classPath().stream().filter(entry -> !Files.isDirectory(Path.of(entry))).forEach(classPath::add);
+        CdsArchive archive = new CdsArchive(dir.resolve("cds"));
+
+        // 학습 실행이 결과 파일을 쓰지 않는지 보기 위해 -D 를 넘긴다
+        Path sink = dir.resolve("sink.jsonl");
+        List<String> jvmArguments = new ArrayList<>(ShardedLauncher.forwardedJvmArguments());
+        jvmArguments.add("-D" + AsyncReportEntryListener.FILE + "=" + sink);
+
+        assertFalse(archive.isUpToDate(classPath));
+        archive.build(jvmArguments, classPath, CdsArchive.TRAINING_CLASSES);
+
+        assertTrue(archive.isUpToDate(classPath));
+        assertFalse(Files.exists(sink));
+        assertEquals(dir.resolve("cds").resolve(CdsArchive.CLASSES_JAR).toString(), archive.classPath().get(0));
+        assertTrue(archive.classPath().stream().noneMatch(entry -> Files.isDirectory(Path.of(entry))));
+
+        Path classLoadLog = dir.resolve("class-load.log");
+        List<String> command = new ArrayList<>(List.of(ShardedLauncher.javaExecutable()));
+        command.addAll(ShardedLauncher.forwardedJvmArguments());
+        command.addAll(archive.jvmArguments());
+        command.addAll(List.of("-Xlog:class+load=info:file=" + classLoadLog, "-cp", String.join(File.pathSeparator, archive.classPath()),
+                ForkedTestRunner.class.getName(), "TaggingDemo"));
+        assertEquals(0, new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD).start().waitFor());
+        assertTrue(Files.readAllLines(classLoadLog).stream()
+                .anyMatch(line -> line.contains("JupiterTestEngine source: shared objects file (top)")));
+
+        // 다시 compile 해 수정 시각만 바뀐 것은 그대로 쓰고, 내용이 바뀌면 다시 만들어야 한다
+        Path taggingDemo = testClasses.resolve("TaggingDemo.class");
+        Files.setLastModifiedTime(taggingDemo, FileTime.fromMillis(Files.getLastModifiedTime(taggingDemo).toMillis() + 1_000));
+        assertTrue(archive.isUpToDate(classPath));
+        Files.write(taggingDemo, new byte[]{0}, StandardOpenOption.APPEND);
+        assertFalse(archive.isUpToDate(classPath));
+    }
+}
@@ -0,0 +1,42 @@
+package launcher;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * launcher test 들이 컴파일된 class directory 를 찾고 복사할 때 쓰는 helper
+ */
+final class ClassDirectories {
+
+    private ClassDirectories() {
+    }
+
+    /**
+     * type 을 load 한 class path 항목 (directory 또는 jar)
+     */
+    static Path location(Class<?> type) throws URISyntaxException {
+        return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    /**
+     * source 아래의 directory 와 파일을 target 아래에 그대로 복사한다.
+     *
+     * @return target
+     */
+    static Path copyTree(Path source, Path target) throws IOException {
+        try (Stream<Path> files = Files.walk(source)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Path destination = target.resolve(source.relativize(file).toString());
+                if (Files.isDirectory(file)) {
+                    Files.createDirectories(destination);
+                } else {
+                    Files.copy(file, destination);
+                }
+            }
+        }
+        return target;
+    }
+}
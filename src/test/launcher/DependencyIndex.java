@@ -0,0 +1,302 @@
+package launcher;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * test class -> 의존하는 class (main, test helper) 의 transitive closure 와 class 별 content hash
+ * <p>
+ * 컴파일된 class file 의 constant pool 만 읽는다. Class 상수와 descriptor / signature / annotation 에 나오는
+ * L...; 형태의 이름 중 index 에 있는 class 만 의존성으로 본다. (reflection, 문자열로 찾는 class 는 잡지 못한다)
+ * nested class (Outer$Inner) 는 top-level class 하나로 합치고, hash 도 합친 class file 전체에 대해 계산한다.
+ * <p>
+ * 파일 형식 (tab 구분, 한 줄에 class 하나)
+ * <pre>
+ * main  example.Calculator  sha256
+ * test  AssertionsDemo      sha256  common.VirtualAssertions,example.Calculator,example.Idol
+ * </pre>
+ */
+public final class DependencyIndex {
+
+    private static final String HEADER = "# dependency index v1";
+    private static final String MAIN = "main";
+    private static final String TEST = "test";
+
+    /**
+     * 실패한 test 의 hash 자리에 기록해 다음 실행에서 다시 선택되게 한다
+     */
+    private static final String INVALIDATED = "-";
+
+    private static final Pattern TYPE_NAME = Pattern.compile("L([^;<>()\\[\\]:.\\s]+)[;<]");
+
+    private final Map<String, String> hashes;
+    private final Set<String> mainClasses;
+    private final Map<String, Set<String>> dependencies;
+
+    private DependencyIndex(Map<String, String> hashes, Set<String> mainClasses, Map<String, Set<String>> dependencies) {
+        this.hashes = hashes;
+        this.mainClasses = mainClasses;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * @param mainClasses main class output directory
+     * @param testClasses test class output directory
+     */
+    public static DependencyIndex build(Path mainClasses, Path testClasses) throws IOException {
+        Map<String, List<Path>> mainFiles = classFiles(mainClasses);
+        Map<String, List<Path>> testFiles = classFiles(testClasses);
+
+        Map<String, List<Path>> all = new HashMap<>(mainFiles);
+        all.putAll(testFiles);
+
+        Map<String, String> hashes = new TreeMap<>();
+        Map<String, Set<String>> references = new HashMap<>();
+        for (Map.Entry<String, List<Path>> entry : all.entrySet()) {
+            MessageDigest digest = sha256();
+            Set<String> referenced = new HashSet<>();
+            for (Path file : entry.getValue()) {
+                byte[] bytes = Files.readAllBytes(file);
+                digest.update(bytes);
+                for (String name : referencedNames(bytes)) {
+                    String owner = topLevel(name);
+                    if (all.containsKey(owner) && !owner.equals(entry.getKey())) {
+                        referenced.add(owner);
+                    }
+                }
+            }
+            hashes.put(entry.getKey(), HexFormat.of().formatHex(digest.digest()));
+            references.put(entry.getKey(), referenced);
+        }
+
+        Map<String, Set<String>> dependencies = new TreeMap<>();
+        for (String testClass : testFiles.keySet()) {
+            dependencies.put(testClass, closure(testClass, references));
+        }
+        return new DependencyIndex(hashes, new TreeSet<>(mainFiles.keySet()), dependencies);
+    }
+
+    public static DependencyIndex load(Path file) throws IOException {
+        Map<String, String> hashes = new TreeMap<>();
+        Set<String> mainClasses = new TreeSet<>();
+        Map<String, Set<String>> dependencies = new TreeMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 3 || !(fields[0].equals(MAIN) || fields[0].equals(TEST))) {
+                throw new IOException("Malformed dependency index line: " + line);
+            }
+            hashes.put(fields[1], fields[2]);
+            if (fields[0].equals(MAIN)) {
+                mainClasses.add(fields[1]);
+            } else {
+                Set<String> dependsOn = new TreeSet<>();
+                if (fields.length > 3 && !fields[3].isEmpty()) {
+                    Collections.addAll(dependsOn, fields[3].split(","));
+                }
+                dependencies.put(fields[1], dependsOn);
+            }
+        }
+        return new DependencyIndex(hashes, mainClasses, dependencies);
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 교체한다.
+     */
+    public void save(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Map.Entry<String, String> entry : hashes.entrySet()) {
+                    String name = entry.getKey();
+                    if (mainClasses.contains(name)) {
+                        writer.write(MAIN + "\t" + name + "\t" + entry.getValue());
+                    } else {
+                        writer.write(TEST + "\t" + name + "\t" + entry.getValue() + "\t" + String.join(",", dependencies.get(name)));
+                    }
+                    writer.newLine();
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public Set<String> testClasses() {
+        return Collections.unmodifiableSet(dependencies.keySet());
+    }
+
+    /**
+     * @return testClass 가 (간접적으로) 참조하는 main / test class
+     */
+    public Set<String> dependenciesOf(String testClass) {
+        return Collections.unmodifiableSet(dependencies.getOrDefault(testClass, Set.of()));
+    }
+
+    public Set<String> mainDependenciesOf(String testClass) {
+        return dependenciesOf(testClass).stream()
+                .filter(mainClasses::contains)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * previous 이후 자신이나 의존하는 class 가 바뀐 (추가, 삭제 포함) test class
+     */
+    public Set<String> affectedTests(DependencyIndex previous) {
+        Set<String> changed = new HashSet<>();
+        hashes.forEach((name, hash) -> {
+            if (!hash.equals(previous.hashes.get(name))) {
+                changed.add(name);
+            }
+        });
+        previous.hashes.keySet().stream()
+                .filter(name -> !hashes.containsKey(name))
+                .forEach(changed::add);
+
+        Set<String> affected = new TreeSet<>();
+        dependencies.forEach((testClass, dependsOn) -> {
+            if (changed.contains(testClass)
+                    || dependsOn.stream().anyMatch(changed::contains)
+                    || previous.dependenciesOf(testClass).stream().anyMatch(changed::contains)) {
+                affected.add(testClass);
+            }
+        });
+        return affected;
+    }
+
+    /**
+     * testClasses 의 hash 를 지운 index. 저장하면 다음 affectedTests 에서 다시 선택된다.
+     */
+    public DependencyIndex invalidate(Set<String> testClasses) {
+        Map<String, String> invalidated = new TreeMap<>(hashes);
+        testClasses.stream()
+                .filter(invalidated::containsKey)
+                .forEach(name -> invalidated.put(name, INVALIDATED));
+        return new DependencyIndex(invalidated, mainClasses, dependencies);
+    }
+
+    /**
+     * binary name (a.b.Outer$Inner) 의 top-level class 이름
+     */
+    static String topLevel(String binaryName) {
+        int nested = binaryName.indexOf('$', binaryName.lastIndexOf('.') + 1);
+        return nested < 0 ? binaryName : binaryName.substring(0, nested);
+    }
+
+    /**
+     * top-level class 이름 -> class file (nested class 포함)
+     */
+    private static Map<String, List<Path>> classFiles(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return Map.of();
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".class"))
+                    .filter(file -> !file.getFileName().toString().equals("module-info.class"))
+                    .sorted()
+                    .collect(Collectors.groupingBy(file -> {
+                        String relative = root.relativize(file).toString().replace(root.getFileSystem().getSeparator(), ".");
+                        return topLevel(relative.substring(0, relative.length() - ".class".length()));
+                    }, TreeMap::new, Collectors.toList()));
+        }
+    }
+
+    /**
+     * class file constant pool 에서 참조하는 class 의 binary name
+     */
+    static Set<String> referencedNames(byte[] classFile) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+        if (in.readInt() != 0xCAFEBABE) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+        int count = in.readUnsignedShort();
+
+        String[] utf8 = new String[count];
+        int[] classNameIndexes = new int[count];
+        int classes = 0;
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1 -> utf8[i] = in.readUTF();
+                case 7 -> classNameIndexes[classes++] = in.readUnsignedShort();
+                case 8, 16, 19, 20 -> in.readUnsignedShort();
+                case 15 -> in.skipBytes(3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.readInt();
+                case 5, 6 -> {
+                    in.readLong();
+                    i++;
+                }
+                default -> throw new IOException("Unknown constant pool tag " + tag + " at " + i);
+            }
+        }
+
+        Set<String> names = new HashSet<>();
+        for (int c = 0; c < classes; c++) {
+            String name = utf8[classNameIndexes[c]];
+            if (name != null && !name.startsWith("[")) {
+                names.add(name.replace('/', '.'));
+            }
+        }
+        for (String value : utf8) {
+            if (value != null && value.indexOf(';') > 0) {
+                Matcher matcher = TYPE_NAME.matcher(value);
+                while (matcher.find()) {
+                    names.add(matcher.group(1).replace('/', '.'));
+                }
+            }
+        }
+        return names;
+    }
+
+    private static Set<String> closure(String start, Map<String, Set<String>> references) {
+        Set<String> visited = new TreeSet<>();
+        Deque<String> pending = new ArrayDeque<>(references.getOrDefault(start, Set.of()));
+        while (!pending.isEmpty()) {
+            String name = pending.pop();
+            if (!name.equals(start) && visited.add(name)) {
+                pending.addAll(references.getOrDefault(name, Set.of()));
+            }
+        }
+        return visited;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package launcher;
+
+import example.Calculator;
+import example.Idol;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+
+import static launcher.ClassDirectories.copyTree;
+import static launcher.ClassDirectories.location;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyIndexTest {
+
+    private static Path mainClasses;
+    private static Path testClasses;
+
+    @BeforeAll
+    static void locateClassDirectories() throws URISyntaxException {
+        mainClasses = location(Calculator.class);
+        testClasses = location(DependencyIndexTest.class);
+    }
+
+    @Test
+    void indexesMainDependenciesOfTestClasses() throws IOException {
+        DependencyIndex index = DependencyIndex.build(mainClasses, testClasses);
+
+        assertTrue(index.mainDependenciesOf("AssertionsDemo").containsAll(Set.of("example.Calculator", "example.Idol")));
+        assertTrue(index.mainDependenciesOf("ArgumentConversionTest").contains("example.Idol"));
+        assertFalse(index.mainDependenciesOf("ArgumentConversionTest").contains("example.Calculator"));
+        assertTrue(index.dependenciesOf("AssertionsDemo").contains("common.VirtualAssertions"));
+        assertTrue(index.dependenciesOf("ExpressionTest").contains("example.Calculator"));
+        assertFalse(index.testClasses().stream().anyMatch(name -> name.contains("$")));
+    }
+
+    @Test
+    void savedIndexRoundTrips(@TempDir Path dir) throws IOException {
+        DependencyIndex index = DependencyIndex.build(mainClasses, testClasses);
+        Path file = dir.resolve("index.tsv");
+        index.save(file);
+
+        DependencyIndex loaded = DependencyIndex.load(file);
+        assertEquals(index.testClasses(), loaded.testClasses());
+        assertEquals(index.mainDependenciesOf("AssertionsDemo"), loaded.mainDependenciesOf("AssertionsDemo"));
+        assertEquals(Set.of(), index.affectedTests(loaded));
+    }
+
+    @Test
+    void changedMainClassSelectsOnlyDependentTests(@TempDir Path dir) throws IOException {
+        Path copy = dir.resolve("main");
+        copyTree(mainClasses, copy);
+        DependencyIndex before = DependencyIndex.build(copy, testClasses);
+
+        Path idol = copy.resolve(Idol.class.getName().replace('.', '/') + ".class");
+        Files.write(idol, new byte[]{0}, StandardOpenOption.APPEND);
+        Set<String> affected = DependencyIndex.build(copy, testClasses).affectedTests(before);
+
+        assertTrue(affected.containsAll(Set.of("AssertionsDemo", "ArgumentConversionTest", "IdolStoreTest")));
+        assertFalse(affected.contains("ExpressionTest"));
+        assertFalse(affected.contains("CalculatorBulkTest"));
+    }
+
+    @Test
+    void invalidatedTestIsSelectedAgain() throws IOException {
+        DependencyIndex index = DependencyIndex.build(mainClasses, testClasses);
+
+        assertEquals(Set.of("ExpressionTest"), index.affectedTests(index.invalidate(Set.of("ExpressionTest"))));
+    }
+
+    @Test
+    void foldsNestedClassesIntoOwner() {
+        assertEquals("a.b.Outer", DependencyIndex.topLevel("a.b.Outer$Inner$1"));
+        assertEquals("Outer", DependencyIndex.topLevel("Outer$Inner"));
+        assertEquals("a.b$c.Outer", DependencyIndex.topLevel("a.b$c.Outer"));
+    }
+}
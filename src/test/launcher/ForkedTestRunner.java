@@ -0,0 +1,228 @@
+package launcher;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TagFilter;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * ShardedLauncher 가 fork 한 JVM 에서 shard 하나 (test class 목록) 를 실행하고, 실행 event 를 stdout 에 한 줄씩 쓴다.
+ * <pre>
+ * java -cp ... launcher.ForkedTestRunner [--include-tag expr]... [--exclude-tag expr]... class...
+ * </pre>
+ * test 가 System.out 에 쓰는 내용은 stderr 로 돌려, stdout 에는 event 만 나간다.
+ * <p>
+ * event 형식 (tab 구분, 필드의 tab / 줄바꿈 / \ 는 escape)
+ * <pre>
+ * found     containers  tests
+ * started   kind  uniqueId  displayName
+ * skipped   kind  uniqueId  displayName  reason
+ * finished  kind  uniqueId  displayName  status  nanos  stackTrace
+ * done
+ * </pre>
+ * kind 는 test / container, status 는 TestExecutionResult.Status 이름이다.
+ * <p>
+ * stdout 은 class 가 끝날 때마다 flush 하므로, JVM 이 도중에 죽어도 끝난 class 의 event 는 parent 에 전달된다.
+ * System.exit 처럼 shutdown hook 이 도는 종료에서는 남은 event 도 flush 한다.
+ */
+public final class ForkedTestRunner {
+
+    static final String FOUND = "found";
+    static final String STARTED = "started";
+    static final String SKIPPED = "skipped";
+    static final String FINISHED = "finished";
+    static final String DONE = "done";
+
+    static final String TEST = "test";
+    static final String CONTAINER = "container";
+
+    static final String INCLUDE_TAG = "--include-tag";
+    static final String EXCLUDE_TAG = "--exclude-tag";
+
+    private ForkedTestRunner() {
+    }
+
+    public static void main(String[] args) {
+        PrintStream events = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16),
+                false, StandardCharsets.UTF_8);
+        System.setOut(System.err);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            synchronized (events) {
+                events.flush();
+            }
+        }, "forked-test-runner-flush"));
+
+        List<String> includeTags = new ArrayList<>();
+        List<String> excludeTags = new ArrayList<>();
+        List<String> classNames = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case INCLUDE_TAG -> includeTags.add(args[++i]);
+                case EXCLUDE_TAG -> excludeTags.add(args[++i]);
+                default -> classNames.add(args[i]);
+            }
+        }
+
+        LauncherFactory.create().execute(discoveryRequest(classNames, includeTags, excludeTags), new EventWriter(events));
+        events.println(DONE);
+        events.flush();
+        System.exit(events.checkError() ? 3 : 0);
+    }
+
+    static LauncherDiscoveryRequest discoveryRequest(List<String> classNames, List<String> includeTags, List<String> excludeTags) {
+        LauncherDiscoveryRequestBuilder builder = request()
+                .selectors(classNames.stream().map(DiscoverySelectors::selectClass).toList());
+        if (!includeTags.isEmpty()) {
+            builder.filters(TagFilter.includeTags(includeTags));
+        }
+        if (!excludeTags.isEmpty()) {
+            builder.filters(TagFilter.excludeTags(excludeTags));
+        }
+        return builder.build();
+    }
+
+    static String line(String... fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            escape(fields[i], line);
+        }
+        return line.toString();
+    }
+
+    static String[] fields(String line) {
+        String[] fields = line.split("\t", -1);
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = unescape(fields[i]);
+        }
+        return fields;
+    }
+
+    private static void escape(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                out.append(c);
+                continue;
+            }
+            char next = value.charAt(++i);
+            out.append(switch (next) {
+                case 't' -> '\t';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                default -> next;
+            });
+        }
+        return out.toString();
+    }
+
+    /**
+     * event 를 줄 단위로 쓴다. 병렬 실행에서도 줄이 섞이지 않도록 println 을 동기화한다.
+     * flush 는 첫 test 가 시작될 때 (parent 가 time-to-first-test 를 잴 수 있도록), class 가 끝날 때, 실행이 끝날 때 한다.
+     */
+    private static class EventWriter implements TestExecutionListener {
+
+        private final PrintStream out;
+        private final Map<String, Long> startNanos = new ConcurrentHashMap<>();
+        private boolean firstTestStarted;
+
+        EventWriter(PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void testPlanExecutionStarted(TestPlan testPlan) {
+            write(FOUND, String.valueOf(testPlan.countTestIdentifiers(id -> !id.isTest())),
+                    String.valueOf(testPlan.countTestIdentifiers(TestIdentifier::isTest)));
+        }
+
+        @Override
+        public void executionStarted(TestIdentifier testIdentifier) {
+            startNanos.put(testIdentifier.getUniqueId(), System.nanoTime());
+            write(STARTED, kind(testIdentifier), testIdentifier.getUniqueId(), testIdentifier.getDisplayName());
+            if (testIdentifier.isTest()) {
+                synchronized (out) {
+                    if (!firstTestStarted) {
+                        firstTestStarted = true;
+                        out.flush();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+            write(SKIPPED, kind(testIdentifier), testIdentifier.getUniqueId(), testIdentifier.getDisplayName(), reason);
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+            Long start = startNanos.remove(testIdentifier.getUniqueId());
+            long nanos = start == null ? 0 : System.nanoTime() - start;
+            write(FINISHED, kind(testIdentifier), testIdentifier.getUniqueId(), testIdentifier.getDisplayName(),
+                    testExecutionResult.getStatus().name(), String.valueOf(nanos),
+                    testExecutionResult.getThrowable().map(ForkedTestRunner::stackTrace).orElse(""));
+            if (testIdentifier.getSource().orElse(null) instanceof ClassSource) {
+                synchronized (out) {
+                    out.flush();
+                }
+            }
+        }
+
+        private void write(String... fields) {
+            String line = line(fields);
+            synchronized (out) {
+                out.println(line);
+            }
+        }
+
+        private static String kind(TestIdentifier testIdentifier) {
+            return testIdentifier.isTest() ? TEST : CONTAINER;
+        }
+    }
+
+    private static String stackTrace(Throwable throwable) {
+        StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package launcher;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * 지난 실행 이후 자신이나 의존하는 class 가 바뀐 test class 만 실행한다.
+ * <pre>
+ * java -cp out/main:out/test:lib/* launcher.IncrementalTestLauncher out/main out/test [dependency-index.tsv]
+ * </pre>
+ * index 파일이 없으면 모든 test class 를 실행한다. 실행이 끝나면 새 index 를 저장하되,
+ * 실패한 test class 는 hash 를 지워 다음 실행에서도 다시 선택되게 한다.
+ */
+public final class IncrementalTestLauncher {
+
+    public static final String DEFAULT_INDEX_FILE = "dependency-index.tsv";
+
+    private static final Logger logger = Logger.getLogger(IncrementalTestLauncher.class.getName());
+
+    private IncrementalTestLauncher() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: IncrementalTestLauncher <main classes> <test classes> [index file]");
+            System.exit(2);
+        }
+        Path indexFile = Path.of(args.length > 2 ? args[2] : DEFAULT_INDEX_FILE);
+        TestExecutionSummary summary = run(Path.of(args[0]), Path.of(args[1]), indexFile);
+        System.exit(summary == null || summary.getTotalFailureCount() == 0 ? 0 : 1);
+    }
+
+    /**
+     * @return 실행한 test 가 없으면 null
+     */
+    public static TestExecutionSummary run(Path mainClasses, Path testClasses, Path indexFile) throws IOException {
+        DependencyIndex current = DependencyIndex.build(mainClasses, testClasses);
+        Set<String> affected = Files.exists(indexFile)
+                ? current.affectedTests(DependencyIndex.load(indexFile))
+                : current.testClasses();
+
+        logger.info(() -> String.format("%d of %d test classes affected %s",
+                affected.size(), current.testClasses().size(), affected));
+        if (affected.isEmpty()) {
+            current.save(indexFile);
+            return null;
+        }
+
+        LauncherDiscoveryRequest request = request()
+                .selectors(affected.stream().map(DiscoverySelectors::selectClass).toList())
+                .build();
+        SummaryGeneratingListener summaryListener = new SummaryGeneratingListener();
+        FailedClassListener failedClasses = new FailedClassListener();
+        Launcher launcher = LauncherFactory.create();
+        launcher.execute(request, summaryListener, failedClasses);
+
+        current.invalidate(failedClasses.names).save(indexFile);
+
+        TestExecutionSummary summary = summaryListener.getSummary();
+        PrintWriter out = new PrintWriter(System.out);
+        summary.printTo(out);
+        summary.printFailuresTo(out, 10);
+        out.flush();
+        return summary;
+    }
+
+    /**
+     * 실패한 test / container 의 top-level class 이름
+     */
+    private static class FailedClassListener implements TestExecutionListener {
+
+        private final Set<String> names = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+            if (testExecutionResult.getStatus() == TestExecutionResult.Status.SUCCESSFUL) {
+                return;
+            }
+            testIdentifier.getSource().map(FailedClassListener::className)
+                    .map(DependencyIndex::topLevel)
+                    .ifPresent(names::add);
+        }
+
+        private static String className(TestSource source) {
+            if (source instanceof MethodSource method) {
+                return method.getClassName();
+            }
+            if (source instanceof ClassSource type) {
+                return type.getClassName();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package launcher;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * class directory (out/main, out/test) 를 parent 보다 먼저 찾는 (child-first) class loader
+ * <p>
+ * TestDaemon 은 class 가 바뀔 때마다 이 loader 를 새로 만들고 이전 것은 버린다.
+ * daemon 자신의 class path 에도 같은 directory 가 있으므로 parent-first 로는 바뀐 class 를 읽을 수 없다.
+ * JDK, JUnit platform / Jupiter, opentest4j 처럼 daemon 이 계속 들고 있는 class 는 항상 parent 에서 읽어
+ * engine 과 test class 가 같은 API class 를 보게 한다.
+ */
+class ReloadingClassLoader extends URLClassLoader {
+
+    private static final String[] PARENT_FIRST = {
+            "java.", "javax.", "jdk.", "sun.", "com.sun.", "org.junit.", "org.opentest4j.", "org.apiguardian.", "org.hamcrest."
+    };
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    ReloadingClassLoader(URL[] urls, ClassLoader parent) {
+        super("reloading", urls, parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (isParentFirst(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> type = findLoadedClass(name);
+            if (type == null) {
+                try {
+                    type = findClass(name);
+                } catch (ClassNotFoundException e) {
+                    return super.loadClass(name, resolve);
+                }
+            }
+            if (resolve) {
+                resolveClass(type);
+            }
+            return type;
+        }
+    }
+
+    /**
+     * junit-platform.properties 같은 resource 도 class directory 의 것을 먼저 쓴다.
+     */
+    @Override
+    public URL getResource(String name) {
+        URL url = findResource(name);
+        return url != null ? url : super.getResource(name);
+    }
+
+    @Override
+    public Enumeration<URL> getResources(String name) throws IOException {
+        List<URL> urls = new ArrayList<>(Collections.list(findResources(name)));
+        ClassLoader parent = getParent();
+        if (parent != null) {
+            for (URL url : Collections.list(parent.getResources(name))) {
+                if (!urls.contains(url)) {
+                    urls.add(url);
+                }
+            }
+        }
+        return Collections.enumeration(urls);
+    }
+
+    private static boolean isParentFirst(String name) {
+        for (String prefix : PARENT_FIRST) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,239 @@
+package launcher;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * StreamingResultWriter 가 쓰고 StreamingResultsToXml 이 읽는 결과 파일 형식. (JUnit 없이 읽을 수 있도록 따로 둔다)
+ * <p>
+ * 파일 형식 (DataOutput, string 은 int 길이 + UTF-8)
+ * <pre>
+ * header   int MAGIC, short VERSION
+ * record   byte CLASS   int classId, string className                  (class 가 처음 나올 때 한 번)
+ *          byte TEST    int classId, string name, byte status, long startMillis, long nanos,
+ *                       string message, string type, string stackTrace
+ * footer   byte FOOTER  int classCount, class 마다 int classId, long firstOffset, long lastOffset,
+ *                       int tests, int failures, int errors, int skipped, long nanos
+ * trailer  long footerOffset, int MAGIC                                  (파일의 마지막 12 byte)
+ * </pre>
+ * record 는 덧붙이기만 하므로 실행이 중간에 죽어도 마지막 record 앞까지는 그대로 읽을 수 있다. (trailer 가 없는 파일)
+ * footer 는 class 별 개수와 첫 / 마지막 record 위치를 담아, 전체를 읽지 않고도 요약을 보거나 class 의 record 로 바로 갈 수 있게 한다.
+ */
+final class ResultStream {
+
+    static final int MAGIC = 0x4A524553;
+    static final short VERSION = 1;
+
+    static final byte CLASS = 1;
+    static final byte TEST = 2;
+    static final byte FOOTER = 3;
+
+    static final byte SUCCESSFUL = 0;
+    static final byte FAILURE = 1;
+    static final byte ERROR = 2;
+    static final byte SKIPPED = 3;
+
+    static final int TRAILER_LENGTH = Long.BYTES + Integer.BYTES;
+
+    private static final Logger logger = Logger.getLogger(ResultStream.class.getName());
+
+    private ResultStream() {
+    }
+
+    /**
+     * 여러 파일 (ShardedLauncher 의 shard 마다 쓴 파일) 의 record 를 순서대로 target 하나로 합친다.
+     * class id 는 class 이름으로 새로 매기고 footer 는 다시 만든다. 중간에 끊긴 파일은 온전한 record 까지만 옮긴다.
+     */
+    static void merge(List<Path> parts, Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            CountingOutputStream position = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16));
+            try (DataOutputStream out = new DataOutputStream(position)) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                Map<String, ClassSummary> classes = new LinkedHashMap<>();
+                for (Path part : parts) {
+                    copyRecords(part, out, position, classes);
+                }
+                long footerOffset = position.count;
+                out.writeByte(FOOTER);
+                out.writeInt(classes.size());
+                for (ClassSummary summary : classes.values()) {
+                    summary.writeTo(out);
+                }
+                out.writeLong(footerOffset);
+                out.writeInt(MAGIC);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * record 를 모두 읽은 뒤에 쓰므로 끝에서 잘린 record 는 옮기지 않는다.
+     */
+    private static void copyRecords(Path part, DataOutputStream out, CountingOutputStream position,
+                                    Map<String, ClassSummary> classes) throws IOException {
+        Map<Integer, ClassSummary> partClasses = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(part), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new IOException("Not a streamed result file: " + part);
+            }
+            for (int type = in.read(); type >= 0 && type != FOOTER; type = in.read()) {
+                if (type == CLASS) {
+                    int classId = in.readInt();
+                    String className = readString(in);
+                    ClassSummary summary = classes.get(className);
+                    if (summary == null) {
+                        summary = new ClassSummary(classes.size());
+                        classes.put(className, summary);
+                        out.writeByte(CLASS);
+                        out.writeInt(summary.id);
+                        writeString(out, className);
+                    }
+                    partClasses.put(classId, summary);
+                } else if (type == TEST) {
+                    int classId = in.readInt();
+                    String name = readString(in);
+                    byte status = in.readByte();
+                    long startMillis = in.readLong();
+                    long nanos = in.readLong();
+                    String message = readString(in);
+                    String exceptionType = readString(in);
+                    String stackTrace = readString(in);
+                    ClassSummary summary = partClasses.get(classId);
+                    if (summary == null) {
+                        throw new IOException("Unknown class #" + classId + " in " + part);
+                    }
+                    summary.record(position.count, status, nanos);
+                    out.writeByte(TEST);
+                    out.writeInt(summary.id);
+                    writeString(out, name);
+                    out.writeByte(status);
+                    out.writeLong(startMillis);
+                    out.writeLong(nanos);
+                    writeString(out, message);
+                    writeString(out, exceptionType);
+                    writeString(out, stackTrace);
+                } else {
+                    throw new IOException("Unknown record type " + type + " in " + part);
+                }
+            }
+        } catch (EOFException e) {
+            logger.warning(() -> "Results in " + part + " end early, the run did not finish. Merging the complete records");
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * record 위치 (DataOutputStream.size 는 int 라 2GB 에서 멈춘다)
+     */
+    static final class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * footer 에 쓰는 class 하나의 요약. StreamingResultWriter 에서는 write 의 lock 안에서만 접근한다.
+     */
+    static final class ClassSummary {
+
+        final int id;
+        long firstOffset = -1;
+        long lastOffset = -1;
+        int tests;
+        int failures;
+        int errors;
+        int skipped;
+        long nanos;
+
+        ClassSummary(int id) {
+            this.id = id;
+        }
+
+        void record(long offset, byte status, long nanos) {
+            if (firstOffset < 0) {
+                firstOffset = offset;
+            }
+            lastOffset = offset;
+            tests++;
+            switch (status) {
+                case FAILURE -> failures++;
+                case ERROR -> errors++;
+                case SKIPPED -> skipped++;
+                default -> {
+                }
+            }
+            this.nanos += nanos;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(id);
+            out.writeLong(firstOffset);
+            out.writeLong(lastOffset);
+            out.writeInt(tests);
+            out.writeInt(failures);
+            out.writeInt(errors);
+            out.writeInt(skipped);
+            out.writeLong(nanos);
+        }
+
+        static ClassSummary readFrom(DataInput in) throws IOException {
+            ClassSummary summary = new ClassSummary(in.readInt());
+            summary.firstOffset = in.readLong();
+            summary.lastOffset = in.readLong();
+            summary.tests = in.readInt();
+            summary.failures = in.readInt();
+            summary.errors = in.readInt();
+            summary.skipped = in.readInt();
+            summary.nanos = in.readLong();
+            return summary;
+        }
+    }
+}
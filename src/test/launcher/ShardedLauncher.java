@@ -0,0 +1,585 @@
+package launcher;
+
+import common.TestHistory;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TagFilter;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * test class 를 N 개의 shard 로 나눠 shard 마다 JVM 을 하나씩 fork 해 동시에 실행하고, 결과를 하나로 합친다.
+ * system property 처럼 한 JVM 에서 병렬로 돌리기 어려운 test 도 코어를 나눠 쓸 수 있다.
+ * <pre>
+ * java -cp ... launcher.ShardedLauncher out/test [--shards 4] [--include-tag "fast | timed"]... [--exclude-tag model]... [--report events.tsv] [--cds cds]
+ * </pre>
+ * <ol>
+ *     <li>tag filter 를 적용해 discovery 한 test plan 의 top-level class 를 shard 단위로 쓴다.</li>
+ *     <li>TestHistory 의 class 별 시간으로 오래 걸리는 class 부터 가장 덜 찬 shard 에 넣는다. (LPT)
+ *     기록이 없는 class 는 기록이 있는 class 들의 중앙값으로 본다.</li>
+ *     <li>shard 마다 ForkedTestRunner 를 실행하고 stdout 의 event 를 합쳐 summary 를 출력한다.
+ *     --report 를 주면 합친 event 를 shard 번호와 함께 파일로도 남긴다.</li>
+ *     <li>fork 된 JVM 은 history 사본에 기록하고, 끝나면 shard 에 속한 class (nested class 포함) 의 기록만 원래 파일에 합친다.
+ *     class 마다 finished container event 의 시간도 class 전체의 기록으로 남긴다. (TimingExtension 이 없는 class 도 나눌 수 있도록)</li>
+ * </ol>
+ * --cds 를 주면 그 directory 의 CdsArchive 로 fork 한 JVM 의 시작 시간을 줄인다. archive 가 없거나 class 가 바뀌었으면
+ * 경고를 남기고 archive 없이 실행한다. (다시 만드는 것은 CdsArchive build 로 따로 한다)
+ * history 파일은 system property junit.timing.history 로 지정한다. 지정하지 않으면 class 이름 순으로 나누고 기록을 남기지 않는다.
+ * junit.results.stream.file, junit.reporter.sink.file 도 system property 로 지정하며, shard 마다 따로 쓴 파일을 끝나고 하나로 합친다.
+ * 실행 결과 파일 (OUTPUT_FILES) 을 지정하는 -D 는 fork 한 JVM 에 그대로 넘기지 않는다. (여러 JVM 이 한 파일을 덮어쓰지 않도록)
+ */
+public final class ShardedLauncher {
+
+    static final String SHARDS = "--shards";
+    static final String REPORT = "--report";
+    static final String CDS = "--cds";
+
+    /**
+     * 실행 결과를 파일에 쓰는 configuration parameter. -D 로 fork 한 JVM 에 그대로 넘기면 여러 JVM 이 한 파일을 덮어쓴다.
+     */
+    static final List<String> OUTPUT_FILES = List.of(TestHistory.FILE, StreamingResultWriter.FILE, AsyncReportEntryListener.FILE);
+
+    private static final Logger logger = Logger.getLogger(ShardedLauncher.class.getName());
+
+    private ShardedLauncher() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path testClasses = null;
+        int shardCount = Runtime.getRuntime().availableProcessors();
+        List<String> includeTags = new ArrayList<>();
+        List<String> excludeTags = new ArrayList<>();
+        Path report = null;
+        Path cdsDirectory = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case SHARDS -> shardCount = Integer.parseInt(args[++i]);
+                case ForkedTestRunner.INCLUDE_TAG -> includeTags.add(args[++i]);
+                case ForkedTestRunner.EXCLUDE_TAG -> excludeTags.add(args[++i]);
+                case REPORT -> report = Path.of(args[++i]);
+                case CDS -> cdsDirectory = Path.of(args[++i]);
+                default -> testClasses = Path.of(args[i]);
+            }
+        }
+        if (testClasses == null) {
+            System.err.println("usage: ShardedLauncher <test classes> [--shards n] [--include-tag expr]... [--exclude-tag expr]... [--report file] [--cds dir]");
+            System.exit(2);
+        }
+        MergedReport result = run(testClasses, shardCount, includeTags, excludeTags, OutputFiles.fromSystemProperties(), report, cdsDirectory);
+        result.printTo(System.out);
+        System.exit(result.isSuccessful() ? 0 : 1);
+    }
+
+    /**
+     * @param outputFiles  history 와 결과 파일 (OutputFiles.NONE 이면 읽지도 쓰지도 않음)
+     * @param report       합친 event 를 쓸 파일 (null 이면 쓰지 않음)
+     * @param cdsDirectory CdsArchive directory (null 이면 사용하지 않음)
+     */
+    public static MergedReport run(Path testClasses, int shardCount, List<String> includeTags, List<String> excludeTags,
+                                   OutputFiles outputFiles, Path report, Path cdsDirectory) throws IOException, InterruptedException {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shard count must be positive: " + shardCount);
+        }
+        Set<String> classNames = discoverClasses(testClasses, includeTags, excludeTags);
+        Path historyFile = outputFiles.history();
+        TestHistory history = historyFile == null ? TestHistory.NONE : TestHistory.load(historyFile);
+        List<Shard> shards = plan(classNames, history::get, shardCount);
+        logger.info(() -> String.format("%d test classes in %d shards", classNames.size(), shards.size()));
+
+        List<String> jvmArguments = new ArrayList<>(forwardedJvmArguments());
+        List<String> classPath = classPath();
+        if (cdsDirectory != null) {
+            CdsArchive archive = new CdsArchive(cdsDirectory);
+            if (archive.isUpToDate(classPath)) {
+                jvmArguments.addAll(archive.jvmArguments());
+                classPath = archive.classPath();
+            } else {
+                logger.warning(() -> "CDS archive in " + cdsDirectory + " is missing or out of date, running without it"
+                        + " (rebuild with launcher.CdsArchive build)");
+            }
+        }
+
+        MergedReport merged = new MergedReport(shards, report);
+        List<ShardProcess> processes = new ArrayList<>();
+        try {
+            for (Shard shard : shards) {
+                processes.add(start(shard, jvmArguments, classPath, shardFiles(outputFiles, shard), includeTags, excludeTags, merged));
+            }
+            for (ShardProcess process : processes) {
+                process.await();
+            }
+            if (historyFile != null) {
+                for (ShardProcess process : processes) {
+                    history = history.replaceClasses(TestHistory.load(process.files.history()), process.shard.classNames());
+                }
+                merged.recordTo(history);
+                history.save();
+            }
+            if (outputFiles.results() != null) {
+                ResultStream.merge(processes.stream().map(process -> process.files.results()).toList(), outputFiles.results());
+            }
+            if (outputFiles.sink() != null) {
+                concatenate(processes.stream().map(process -> process.files.sink()).toList(), outputFiles.sink());
+            }
+        } finally {
+            for (ShardProcess process : processes) {
+                process.process.destroyForcibly();
+                process.files.delete();
+            }
+            merged.close();
+        }
+        return merged;
+    }
+
+    /**
+     * tag filter 를 통과한 test 를 가진 top-level class 이름
+     */
+    static Set<String> discoverClasses(Path testClasses, List<String> includeTags, List<String> excludeTags) {
+        LauncherDiscoveryRequestBuilder builder = request()
+                .selectors(DiscoverySelectors.selectClasspathRoots(Set.of(testClasses)));
+        if (!includeTags.isEmpty()) {
+            builder.filters(TagFilter.includeTags(includeTags));
+        }
+        if (!excludeTags.isEmpty()) {
+            builder.filters(TagFilter.excludeTags(excludeTags));
+        }
+        LauncherDiscoveryRequest discoveryRequest = builder.build();
+        TestPlan testPlan = LauncherFactory.create().discover(discoveryRequest);
+
+        Set<String> classNames = new TreeSet<>();
+        for (TestIdentifier engine : testPlan.getRoots()) {
+            for (TestIdentifier child : testPlan.getChildren(engine)) {
+                child.getSource()
+                        .filter(ClassSource.class::isInstance)
+                        .map(source -> DependencyIndex.topLevel(((ClassSource) source).getClassName()))
+                        .ifPresent(classNames::add);
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * 오래 걸리는 class 부터 지금까지 가장 적게 찬 shard 에 넣는다. (longest processing time first)
+     * class 보다 shard 가 많으면 빈 shard 는 만들지 않는다.
+     */
+    static List<Shard> plan(Set<String> classNames, Function<String, Optional<TestHistory.Entry>> history, int shardCount) {
+        List<String> ordered = new ArrayList<>(classNames);
+        long median = median(ordered.stream().map(history).flatMap(Optional::stream).mapToLong(TestHistory.Entry::nanos).toArray());
+        // 기록이 하나도 없으면 모두 1 로 보아 class 수로 나눈다
+        Function<String, Long> weight = className -> Math.max(1, history.apply(className).map(TestHistory.Entry::nanos).orElse(median));
+        ordered.sort(Comparator.comparing(weight).reversed().thenComparing(Comparator.naturalOrder()));
+
+        int count = Math.min(shardCount, ordered.size());
+        PriorityQueue<ShardBuilder> queue = new PriorityQueue<>(
+                Comparator.comparingLong((ShardBuilder shard) -> shard.nanos).thenComparingInt(shard -> shard.index));
+        for (int i = 0; i < count; i++) {
+            queue.add(new ShardBuilder(i));
+        }
+        for (String className : ordered) {
+            ShardBuilder lightest = queue.poll();
+            lightest.classNames.add(className);
+            lightest.nanos += weight.apply(className);
+            queue.add(lightest);
+        }
+        return queue.stream()
+                .sorted(Comparator.comparingInt(shard -> shard.index))
+                .map(shard -> new Shard(shard.index, List.copyOf(shard.classNames), shard.nanos))
+                .toList();
+    }
+
+    private static long median(long[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    /**
+     * shard 가 쓸 임시 파일. history 는 원래 파일을 복사해 두어 fork 한 JVM 의 orderer 가 읽을 수 있게 한다.
+     */
+    private static OutputFiles shardFiles(OutputFiles outputFiles, Shard shard) throws IOException {
+        Path history = null;
+        if (outputFiles.history() != null) {
+            history = temporaryFile(outputFiles.history(), shard, ".tsv");
+            if (Files.exists(outputFiles.history())) {
+                Files.copy(outputFiles.history(), history, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Path results = outputFiles.results() == null ? null : temporaryFile(outputFiles.results(), shard, ".bin");
+        Path sink = outputFiles.sink() == null ? null : temporaryFile(outputFiles.sink(), shard, ".jsonl");
+        return new OutputFiles(history, results, sink);
+    }
+
+    private static Path temporaryFile(Path file, Shard shard, String suffix) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        return Files.createTempFile(directory, "shard-" + shard.index() + "-", suffix);
+    }
+
+    /**
+     * shard 의 파일을 shard 순서대로 이어 붙여 target 에 쓴다.
+     */
+    private static void concatenate(List<Path> parts, Path target) throws IOException {
+        Path temporary = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                for (Path part : parts) {
+                    Files.copy(part, out);
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static ShardProcess start(Shard shard, List<String> jvmArguments, List<String> classPath, OutputFiles files,
+                                      List<String> includeTags, List<String> excludeTags, MergedReport merged) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable());
+        command.addAll(jvmArguments);
+        if (files.history() != null) {
+            command.add("-D" + TestHistory.FILE + "=" + files.history());
+        }
+        if (files.results() != null) {
+            command.add("-D" + StreamingResultWriter.FILE + "=" + files.results());
+        }
+        if (files.sink() != null) {
+            command.add("-D" + AsyncReportEntryListener.FILE + "=" + files.sink());
+        }
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, classPath));
+        command.add(ForkedTestRunner.class.getName());
+        includeTags.forEach(tag -> command.addAll(List.of(ForkedTestRunner.INCLUDE_TAG, tag)));
+        excludeTags.forEach(tag -> command.addAll(List.of(ForkedTestRunner.EXCLUDE_TAG, tag)));
+        command.addAll(shard.classNames());
+
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        process.getOutputStream().close();
+        Thread reader = Thread.ofVirtual().name("shard-" + shard.index()).start(() -> {
+            try (BufferedReader events = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                for (String line = events.readLine(); line != null; line = events.readLine()) {
+                    merged.accept(shard.index(), line);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return new ShardProcess(shard, files, process, reader, merged);
+    }
+
+    static String javaExecutable() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    /**
+     * debugger / agent, CDS archive, 실행 결과 파일을 제외한 현재 JVM 의 option (--add-modules, -D, -Xmx 등)
+     */
+    static List<String> forwardedJvmArguments() {
+        return withoutOutputFiles(ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(argument -> !argument.startsWith("-agent") && !argument.startsWith("-javaagent")
+                        && !argument.startsWith("-Xrunjdwp") && !argument.startsWith("-Xdebug")
+                        && !argument.startsWith("-Xshare") && !argument.startsWith("-XX:SharedArchiveFile")
+                        && !argument.startsWith("-XX:ArchiveClassesAtExit"))
+                .toList());
+    }
+
+    /**
+     * jvmArguments 에서 실행 결과 파일 (OUTPUT_FILES) 을 지정하는 -D 를 뺀 것
+     */
+    static List<String> withoutOutputFiles(List<String> jvmArguments) {
+        return jvmArguments.stream()
+                .filter(argument -> OUTPUT_FILES.stream().noneMatch(name -> argument.startsWith("-D" + name + "=")))
+                .toList();
+    }
+
+    /**
+     * 현재 class loader 의 URL 과 java.class.path
+     * (console launcher 처럼 -cp 를 별도 class loader 로 여는 경우에도 fork 된 JVM 이 같은 class 를 보도록)
+     */
+    static List<String> classPath() {
+        Set<String> entries = new LinkedHashSet<>();
+        for (ClassLoader loader = Thread.currentThread().getContextClassLoader(); loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader urls) {
+                for (URL url : urls.getURLs()) {
+                    try {
+                        entries.add(Path.of(url.toURI()).toString());
+                    } catch (URISyntaxException | IllegalArgumentException e) {
+                        logger.fine(() -> "Skipping class path entry " + url);
+                    }
+                }
+            }
+        }
+        entries.addAll(Arrays.asList(System.getProperty("java.class.path").split(File.pathSeparator)));
+        entries.remove("");
+        return List.copyOf(entries);
+    }
+
+    /**
+     * 실행 결과를 쓰는 파일. null 이면 쓰지 않는다.
+     *
+     * @param history TestHistory 파일 (shard 를 나눌 때 읽고, 끝나면 shard 의 기록을 합쳐 저장)
+     * @param results StreamingResultWriter 의 결과 파일 (shard 의 파일을 ResultStream.merge 로 합침)
+     * @param sink    AsyncReportEntryListener 의 JSONL 파일 (shard 의 파일을 shard 순서대로 이어 붙임)
+     */
+    public record OutputFiles(Path history, Path results, Path sink) {
+
+        public static final OutputFiles NONE = new OutputFiles(null, null, null);
+
+        /**
+         * system property 로 지정한 파일
+         */
+        static OutputFiles fromSystemProperties() {
+            return new OutputFiles(path(TestHistory.FILE), path(StreamingResultWriter.FILE), path(AsyncReportEntryListener.FILE));
+        }
+
+        private static Path path(String property) {
+            String value = System.getProperty(property);
+            return value == null || value.isBlank() ? null : Path.of(value);
+        }
+
+        private void delete() throws IOException {
+            if (history != null) {
+                Files.deleteIfExists(history);
+            }
+            if (results != null) {
+                Files.deleteIfExists(results);
+            }
+            if (sink != null) {
+                Files.deleteIfExists(sink);
+            }
+        }
+    }
+
+    /**
+     * @param nanos 예상 실행 시간 (history 기준)
+     */
+    record Shard(int index, List<String> classNames, long nanos) {
+    }
+
+    private static class ShardBuilder {
+
+        private final int index;
+        private final List<String> classNames = new ArrayList<>();
+        private long nanos;
+
+        ShardBuilder(int index) {
+            this.index = index;
+        }
+    }
+
+    private static class ShardProcess {
+
+        private final Shard shard;
+        private final OutputFiles files;
+        private final Process process;
+        private final Thread reader;
+        private final MergedReport merged;
+        private final long startNanos = System.nanoTime();
+
+        ShardProcess(Shard shard, OutputFiles files, Process process, Thread reader, MergedReport merged) {
+            this.shard = shard;
+            this.files = files;
+            this.process = process;
+            this.reader = reader;
+            this.merged = merged;
+        }
+
+        void await() throws InterruptedException {
+            int exitCode = process.waitFor();
+            reader.join(TimeUnit.SECONDS.toMillis(10));
+            merged.finished(shard.index(), exitCode, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * 모든 shard 의 event 를 합친 결과
+     */
+    public static final class MergedReport implements AutoCloseable {
+
+        /**
+         * engine 바로 아래의 class container (unique id 의 마지막 segment 가 class)
+         */
+        private static final Pattern TOP_LEVEL_CLASS = Pattern.compile("\\[engine:[^]]*]/\\[class:([^]]*)]");
+        private static final Pattern CLASS_SEGMENT = Pattern.compile("\\[class:([^]]*)]");
+
+        private final List<Shard> shards;
+        private final BufferedWriter report;
+
+        private final long[] found = new long[2];
+        private final long[] started = new long[2];
+        private final long[] skipped = new long[2];
+        private final long[] successful = new long[2];
+        private final long[] aborted = new long[2];
+        private final long[] failed = new long[2];
+        private final List<String> failures = new ArrayList<>();
+        private final Map<String, Long> classNanos = new TreeMap<>();
+        private final Set<String> failedClasses = new HashSet<>();
+
+        private final boolean[] done;
+        private final int[] exitCodes;
+        private final long[] wallNanos;
+
+        MergedReport(List<Shard> shards, Path report) throws IOException {
+            this.shards = shards;
+            this.report = report == null ? null : Files.newBufferedWriter(report, StandardCharsets.UTF_8);
+            this.done = new boolean[shards.size()];
+            this.exitCodes = new int[shards.size()];
+            this.wallNanos = new long[shards.size()];
+        }
+
+        synchronized void accept(int shard, String line) {
+            String[] fields = ForkedTestRunner.fields(line);
+            switch (fields[0]) {
+                case ForkedTestRunner.FOUND -> {
+                    found[1] += Long.parseLong(fields[1]);
+                    found[0] += Long.parseLong(fields[2]);
+                }
+                case ForkedTestRunner.STARTED -> started[kind(fields[1])]++;
+                case ForkedTestRunner.SKIPPED -> skipped[kind(fields[1])]++;
+                case ForkedTestRunner.FINISHED -> {
+                    int kind = kind(fields[1]);
+                    Matcher topLevelClass = TOP_LEVEL_CLASS.matcher(fields[2]);
+                    if (topLevelClass.matches()) {
+                        classNanos.put(topLevelClass.group(1), Long.parseLong(fields[5]));
+                    }
+                    switch (fields[4]) {
+                        case "SUCCESSFUL" -> successful[kind]++;
+                        case "ABORTED" -> aborted[kind]++;
+                        default -> {
+                            failed[kind]++;
+                            failures.add(String.format("shard %d: %s (%s)%n%s", shard, fields[3], fields[2], fields[6]));
+                            Matcher owner = CLASS_SEGMENT.matcher(fields[2]);
+                            if (owner.find()) {
+                                failedClasses.add(owner.group(1));
+                            }
+                        }
+                    }
+                }
+                case ForkedTestRunner.DONE -> done[shard] = true;
+                default -> logger.warning(() -> "Unknown event from shard " + shard + ": " + line);
+            }
+            if (report != null) {
+                try {
+                    report.write(shard + "\t" + line);
+                    report.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        /**
+         * 끝난 top-level class 마다 실행 시간 (nested class 포함) 과 실패 여부를 history 에 더한다.
+         */
+        synchronized void recordTo(TestHistory history) {
+            classNanos.forEach((className, nanos) -> history.recordClass(className, nanos, failedClasses.contains(className)));
+        }
+
+        synchronized void finished(int shard, int exitCode, long nanos) {
+            exitCodes[shard] = exitCode;
+            wallNanos[shard] = nanos;
+        }
+
+        /**
+         * 모든 shard 가 끝까지 실행됐고 실패한 test / container 가 없는지
+         */
+        public synchronized boolean isSuccessful() {
+            for (int i = 0; i < done.length; i++) {
+                if (!done[i] || exitCodes[i] != 0) {
+                    return false;
+                }
+            }
+            return failed[0] == 0 && failed[1] == 0;
+        }
+
+        public synchronized long getTestsFound() {
+            return found[0];
+        }
+
+        public synchronized long getTestsSucceeded() {
+            return successful[0];
+        }
+
+        public synchronized long getTestsFailed() {
+            return failed[0];
+        }
+
+        public synchronized int getShardCount() {
+            return shards.size();
+        }
+
+        public synchronized void printTo(PrintStream out) {
+            for (Shard shard : shards) {
+                int i = shard.index();
+                out.printf("shard %d: %d classes, expected %d ms, took %d ms%s%n", i, shard.classNames().size(),
+                        TimeUnit.NANOSECONDS.toMillis(shard.nanos()), TimeUnit.NANOSECONDS.toMillis(wallNanos[i]),
+                        done[i] && exitCodes[i] == 0 ? "" : " (exit code " + exitCodes[i] + (done[i] ? ")" : ", incomplete)"));
+            }
+            String[] kinds = {"tests", "containers"};
+            for (int kind = 1; kind >= 0; kind--) {
+                out.printf("[%10d %-10s found      ]%n", found[kind], kinds[kind]);
+                out.printf("[%10d %-10s skipped    ]%n", skipped[kind], kinds[kind]);
+                out.printf("[%10d %-10s started    ]%n", started[kind], kinds[kind]);
+                out.printf("[%10d %-10s aborted    ]%n", aborted[kind], kinds[kind]);
+                out.printf("[%10d %-10s successful ]%n", successful[kind], kinds[kind]);
+                out.printf("[%10d %-10s failed     ]%n", failed[kind], kinds[kind]);
+            }
+            failures.forEach(out::println);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (report != null) {
+                report.close();
+            }
+        }
+
+        private static int kind(String kind) {
+            return kind.equals(ForkedTestRunner.TEST) ? 0 : 1;
+        }
+    }
+}
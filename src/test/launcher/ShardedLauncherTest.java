@@ -0,0 +1,163 @@
+package launcher;
+
+import common.TestHistory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static launcher.ClassDirectories.location;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ShardedLauncherTest {
+
+    @Test
+    void balancesShardsLongestFirst() {
+        Map<String, Long> nanos = Map.of("A", 7L, "B", 5L, "C", 4L, "D", 3L, "E", 3L, "F", 2L);
+
+        List<ShardedLauncher.Shard> shards = ShardedLauncher.plan(nanos.keySet(),
+                name -> Optional.of(new TestHistory.Entry(nanos.get(name), false, 1)), 2);
+
+        assertEquals(List.of(12L, 12L), shards.stream().map(ShardedLauncher.Shard::nanos).toList());
+        assertEquals(List.of("A", "D", "F"), shards.get(0).classNames());
+        assertEquals(List.of("B", "C", "E"), shards.get(1).classNames());
+    }
+
+    @Test
+    void unknownClassesWeighTheMedian() {
+        Map<String, Long> nanos = Map.of("A", 10L, "B", 20L, "C", 30L);
+
+        List<ShardedLauncher.Shard> shards = ShardedLauncher.plan(Set.of("A", "B", "C", "X"),
+                name -> Optional.ofNullable(nanos.get(name)).map(value -> new TestHistory.Entry(value, false, 1)), 8);
+
+        assertEquals(4, shards.size());
+        assertEquals(List.of("C"), shards.get(0).classNames());
+        assertEquals(20L, shards.stream().filter(shard -> shard.classNames().equals(List.of("X"))).findFirst().orElseThrow().nanos());
+    }
+
+    @Test
+    void eventFieldsRoundTrip() {
+        String[] fields = {"finished", "test", "[engine:junit-jupiter]", "a\tb\\c", "FAILED", "12", "line 1\nline 2\r\n"};
+
+        String line = ForkedTestRunner.line(fields);
+
+        assertFalse(line.contains("\n"));
+        assertArrayEquals(fields, ForkedTestRunner.fields(line));
+    }
+
+    @Test
+    void runsTaggedClassesInForkedJvms(@TempDir Path dir) throws IOException, InterruptedException, URISyntaxException {
+        Path testClasses = location(ShardedLauncherTest.class);
+        Path report = dir.resolve("events.tsv");
+
+        Path history = dir.resolve("history.tsv");
+
+        ShardedLauncher.MergedReport result = ShardedLauncher.run(testClasses, 2, List.of("model"), List.of(),
+                new ShardedLauncher.OutputFiles(history, null, null), report, null);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(1, result.getShardCount());
+        assertEquals(2, result.getTestsFound());
+        assertEquals(2, result.getTestsSucceeded());
+        assertTrue(Files.readAllLines(report).stream().anyMatch(line -> line.startsWith("0\tdone")));
+        TestHistory recorded = TestHistory.load(history);
+        for (String className : ShardedLauncher.discoverClasses(testClasses, List.of("model"), List.of())) {
+            assertTrue(recorded.get(className).isPresent(), className);
+        }
+    }
+
+    @Test
+    void mergesEachShardsOutputFiles(@TempDir Path dir) throws IOException, InterruptedException, URISyntaxException {
+        // report entry 를 남기는 class 둘만 두 shard 로 나눠 실행한다
+        Path testClasses = Files.createDirectories(dir.resolve("test"));
+        for (String className : List.of("TestReporterDemo", "LifeCycleInteroperablilityTest")) {
+            Files.copy(location(ShardedLauncherTest.class).resolve(className + ".class"), testClasses.resolve(className + ".class"));
+        }
+        Path results = dir.resolve("results.bin");
+        Path sink = dir.resolve("sink.jsonl");
+
+        ShardedLauncher.MergedReport result = ShardedLauncher.run(testClasses, 2, List.of(), List.of(),
+                new ShardedLauncher.OutputFiles(null, results, sink), null, null);
+
+        assertEquals(2, result.getShardCount());
+        List<Path> reports = StreamingResultsToXml.convert(results, dir.resolve("xml"));
+        assertEquals(Set.of("TEST-TestReporterDemo.xml", "TEST-LifeCycleInteroperablilityTest.xml"),
+                reports.stream().map(report -> report.getFileName().toString()).collect(Collectors.toSet()));
+        List<String> lines = Files.readAllLines(sink);
+        assertTrue(lines.stream().anyMatch(line -> line.contains("[class:TestReporterDemo]")), lines::toString);
+        assertTrue(lines.stream().anyMatch(line -> line.contains("[class:LifeCycleInteroperablilityTest]")), lines::toString);
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(Set.of(results, sink), files.filter(Files::isRegularFile).collect(Collectors.toSet()));
+        }
+    }
+
+    @Test
+    void eventsOfFinishedClassesSurviveAHaltedFork() throws IOException, InterruptedException {
+        List<String> lines = runHaltingFork(List.of());
+
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith(ForkedTestRunner.FINISHED + "\tcontainer\t")
+                && line.contains(FinishedProbe.class.getName())), lines::toString);
+        assertFalse(lines.contains(ForkedTestRunner.DONE));
+    }
+
+    /**
+     * FinishedProbe, HaltingProbe 순으로 실행하다 Runtime.halt 로 끝나는 ForkedTestRunner 의 stdout
+     */
+    static List<String> runHaltingFork(List<String> jvmArguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(ShardedLauncher.javaExecutable());
+        command.add("-D" + HaltingProbe.HALT + "=true");
+        command.addAll(jvmArguments);
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, ShardedLauncher.classPath()));
+        command.add(ForkedTestRunner.class.getName());
+        command.add(FinishedProbe.class.getName());
+        command.add(HaltingProbe.class.getName());
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader events = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = events.readLine(); line != null; line = events.readLine()) {
+                lines.add(line);
+            }
+        }
+        assertEquals(HaltingProbe.EXIT_CODE, process.waitFor());
+        return lines;
+    }
+
+    static class FinishedProbe {
+
+        @Test
+        void finishes() {
+        }
+    }
+
+    /**
+     * fork 된 JVM 에서만 shutdown hook 없이 JVM 을 끝낸다. (kill -9 와 같이 buffer 에 남은 내용은 사라진다)
+     */
+    static class HaltingProbe {
+
+        static final String HALT = "launcher.halting-probe";
+        static final int EXIT_CODE = 42;
+
+        @Test
+        void haltsJvm() {
+            assumeTrue(Boolean.getBoolean(HALT));
+            Runtime.getRuntime().halt(EXIT_CODE);
+        }
+    }
+}
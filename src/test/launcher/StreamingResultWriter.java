@@ -0,0 +1,249 @@
+package launcher;
+
+import launcher.ResultStream.ClassSummary;
+import launcher.ResultStream.CountingOutputStream;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 끝난 test 를 하나씩 바로 파일에 덧붙이는 listener. report tree 를 memory 에 모으지 않으므로
+ * invocation 수가 늘어도 memory 는 test class 수에만 비례한다.
+ * <p>
+ * META-INF/services 로 등록되어 있고, junit.results.stream.file 이 설정된 실행에서만 동작한다. (빈 값이면 동작하지 않는다)
+ * XML 은 StreamingResultsToXml 로 실행이 끝난 뒤 따로 만든다.
+ * 파일 형식은 ResultStream 참고.
+ * <p>
+ * buffer 는 class 가 끝날 때마다 flush 하므로, fork 된 JVM 이 도중에 죽어도 끝난 class 의 결과는 파일에 남는다.
+ */
+public final class StreamingResultWriter implements TestExecutionListener {
+
+    public static final String FILE = "junit.results.stream.file";
+
+    private static final Logger logger = Logger.getLogger(StreamingResultWriter.class.getName());
+
+    private final Map<String, Start> starts = new ConcurrentHashMap<>();
+
+    private TestPlan testPlan;
+    private Path file;
+    private volatile DataOutputStream out;
+    private CountingOutputStream position;
+    private Map<String, ClassSummary> classes;
+    private long records;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        Optional<String> file = testPlan.getConfigurationParameters().get(FILE).filter(value -> !value.isBlank());
+        if (file.isEmpty()) {
+            return;
+        }
+        this.testPlan = testPlan;
+        this.file = Path.of(file.get());
+        try {
+            Path parent = this.file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            position = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(this.file), 1 << 16));
+            out = new DataOutputStream(position);
+            out.writeInt(ResultStream.MAGIC);
+            out.writeShort(ResultStream.VERSION);
+            classes = new LinkedHashMap<>();
+            records = 0;
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (out != null && testIdentifier.isTest()) {
+            starts.put(testIdentifier.getUniqueId(), new Start(System.currentTimeMillis(), System.nanoTime()));
+        }
+    }
+
+    /**
+     * container 가 skip 되면 그 아래 test 도 모두 skip 으로 기록한다.
+     */
+    @Override
+    public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+        if (out == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (testIdentifier.isTest()) {
+            write(testIdentifier, ResultStream.SKIPPED, now, 0, reason, "", "");
+            return;
+        }
+        for (TestIdentifier descendant : testPlan.getDescendants(testIdentifier)) {
+            if (descendant.isTest()) {
+                write(descendant, ResultStream.SKIPPED, now, 0, reason, "", "");
+            }
+        }
+    }
+
+    /**
+     * test 와, 실패한 container (@BeforeAll 등) 를 기록한다. aborted 는 skip 으로 본다.
+     */
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        if (out == null) {
+            return;
+        }
+        TestExecutionResult.Status status = testExecutionResult.getStatus();
+        boolean classFinished = testIdentifier.getSource().orElse(null) instanceof ClassSource;
+        if (!testIdentifier.isTest() && (status != TestExecutionResult.Status.FAILED || testIdentifier.getParentId().isEmpty())) {
+            if (classFinished) {
+                flush();
+            }
+            return;
+        }
+        Start start = starts.remove(testIdentifier.getUniqueId());
+        long nanos = start == null ? 0 : System.nanoTime() - start.nanoTime();
+        Throwable throwable = testExecutionResult.getThrowable().orElse(null);
+        byte kind = switch (status) {
+            case SUCCESSFUL -> ResultStream.SUCCESSFUL;
+            case ABORTED -> ResultStream.SKIPPED;
+            case FAILED -> throwable instanceof AssertionError ? ResultStream.FAILURE : ResultStream.ERROR;
+        };
+        write(testIdentifier, kind, start == null ? System.currentTimeMillis() : start.epochMillis(), nanos,
+                throwable == null || throwable.getMessage() == null ? "" : throwable.getMessage(),
+                throwable == null ? "" : throwable.getClass().getName(),
+                throwable == null || kind == ResultStream.SKIPPED ? "" : stackTrace(throwable));
+        if (classFinished) {
+            flush();
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (out == null) {
+            return;
+        }
+        synchronized (this) {
+            try {
+                long footerOffset = position.count;
+                out.writeByte(ResultStream.FOOTER);
+                out.writeInt(classes.size());
+                for (ClassSummary summary : classes.values()) {
+                    summary.writeTo(out);
+                }
+                out.writeLong(footerOffset);
+                out.writeInt(ResultStream.MAGIC);
+                out.close();
+                long written = records;
+                int classCount = classes.size();
+                Path streamed = file;
+                logger.info(() -> String.format("%d results of %d classes streamed to %s (%d KB)",
+                        written, classCount, streamed, streamed.toFile().length() / 1024));
+            } catch (IOException e) {
+                failed(e);
+            } finally {
+                out = null;
+                classes = null;
+                this.testPlan = null;
+                starts.clear();
+            }
+        }
+    }
+
+    /**
+     * 병렬 실행에서 record 가 섞이지 않도록 동기화한다. (buffer 에 쓰므로 대부분 I/O 없이 끝난다)
+     */
+    private synchronized void write(TestIdentifier testIdentifier, byte status, long startMillis, long nanos,
+                                    String message, String type, String stackTrace) {
+        if (out == null) {
+            return;
+        }
+        try {
+            String className = className(testIdentifier);
+            ClassSummary summary = classes.get(className);
+            if (summary == null) {
+                summary = new ClassSummary(classes.size());
+                classes.put(className, summary);
+                out.writeByte(ResultStream.CLASS);
+                out.writeInt(summary.id);
+                ResultStream.writeString(out, className);
+            }
+            summary.record(position.count, status, nanos);
+            out.writeByte(ResultStream.TEST);
+            out.writeInt(summary.id);
+            ResultStream.writeString(out, testIdentifier.getLegacyReportingName());
+            out.writeByte(status);
+            out.writeLong(startMillis);
+            out.writeLong(nanos);
+            ResultStream.writeString(out, message);
+            ResultStream.writeString(out, type);
+            ResultStream.writeString(out, stackTrace);
+            records++;
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    private synchronized void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    /**
+     * 가장 가까운 조상의 class (dynamic test 처럼 source 가 없으면 parent 를 따라 올라간다)
+     */
+    private String className(TestIdentifier testIdentifier) {
+        for (TestIdentifier current = testIdentifier; current != null; current = testPlan.getParent(current).orElse(null)) {
+            TestSource source = current.getSource().orElse(null);
+            if (source instanceof MethodSource method) {
+                return method.getClassName();
+            }
+            if (source instanceof ClassSource type) {
+                return type.getClassName();
+            }
+        }
+        return testIdentifier.getUniqueId();
+    }
+
+    private record Start(long epochMillis, long nanoTime) {
+    }
+
+    private void failed(IOException e) {
+        logger.log(Level.WARNING, "Could not stream results to " + file, e);
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+        }
+        out = null;
+    }
+
+    private static String stackTrace(Throwable throwable) {
+        StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+}
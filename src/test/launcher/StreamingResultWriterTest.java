@@ -0,0 +1,101 @@
+package launcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+class StreamingResultWriterTest {
+
+    @Test
+    void convertsStreamedResultsToXmlReports(@TempDir Path dir) throws Exception {
+        Path results = run(dir.resolve("results.bin"));
+
+        List<Path> reports = StreamingResultsToXml.convert(results, dir.resolve("xml"));
+
+        assertEquals(List.of(dir.resolve("xml").resolve("TEST-RepeatTest.xml"), dir.resolve("xml").resolve("TEST-StandardTest.xml")), reports);
+        assertEquals("10", testSuite(reports.get(0)).getAttribute("tests"));
+        Element standard = testSuite(reports.get(1));
+        assertEquals("4", standard.getAttribute("tests"));
+        assertEquals("1", standard.getAttribute("failures"));
+        assertEquals("0", standard.getAttribute("errors"));
+        assertEquals("2", standard.getAttribute("skipped"));
+        Element failure = (Element) standard.getElementsByTagName("failure").item(0);
+        assertEquals("org.opentest4j.AssertionFailedError", failure.getAttribute("type"));
+        assertTrue(failure.getTextContent().contains("StandardTest.failingTest"));
+        try (Stream<Path> files = Files.list(dir.resolve("xml"))) {
+            assertEquals(2, files.count(), "fragment files are removed");
+        }
+    }
+
+    @Test
+    void convertsCompleteRecordsOfAnUnfinishedRun(@TempDir Path dir) throws Exception {
+        Path results = run(dir.resolve("results.bin"));
+        // footer 와 마지막 record 의 일부가 없는, 중간에 끊긴 실행
+        long footerOffset;
+        try (FileChannel channel = FileChannel.open(results, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            footerOffset = channel.map(FileChannel.MapMode.READ_ONLY, channel.size() - ResultStream.TRAILER_LENGTH, Long.BYTES).getLong();
+            channel.truncate(footerOffset - 5);
+        }
+        assertNull(StreamingResultsToXml.readFooter(results));
+
+        List<Path> reports = StreamingResultsToXml.convert(results, dir.resolve("xml"));
+
+        assertEquals(2, reports.size());
+        assertEquals("10", testSuite(reports.get(0)).getAttribute("tests"));
+        assertEquals("3", testSuite(reports.get(1)).getAttribute("tests"));
+    }
+
+    @Test
+    void keepsClassesFinishedBeforeTheForkWasKilled(@TempDir Path dir) throws Exception {
+        Path results = dir.resolve("results.bin");
+        ShardedLauncherTest.runHaltingFork(List.of("-D" + StreamingResultWriter.FILE + "=" + results));
+
+        List<Path> reports = StreamingResultsToXml.convert(results, dir.resolve("xml"));
+
+        assertEquals(List.of(dir.resolve("xml").resolve("TEST-" + ShardedLauncherTest.FinishedProbe.class.getName() + ".xml")), reports);
+        assertEquals("1", testSuite(reports.get(0)).getAttribute("tests"));
+    }
+
+    @Test
+    void mergesFinishedAndHaltedShards(@TempDir Path dir) throws Exception {
+        Path finished = run(dir.resolve("finished.bin"));
+        Path halted = dir.resolve("halted.bin");
+        ShardedLauncherTest.runHaltingFork(List.of("-D" + StreamingResultWriter.FILE + "=" + halted));
+        Path merged = dir.resolve("results.bin");
+
+        ResultStream.merge(List.of(halted, finished), merged);
+
+        assertEquals(3, StreamingResultsToXml.readFooter(merged).size());
+        List<Path> reports = StreamingResultsToXml.convert(merged, dir.resolve("xml"));
+        assertEquals(List.of("TEST-" + ShardedLauncherTest.FinishedProbe.class.getName() + ".xml", "TEST-RepeatTest.xml", "TEST-StandardTest.xml"),
+                reports.stream().map(report -> report.getFileName().toString()).toList());
+        assertEquals("4", testSuite(reports.get(2)).getAttribute("tests"));
+    }
+
+    private static Path run(Path results) {
+        LauncherFactory.create().execute(request()
+                .selectors(DiscoverySelectors.selectClass("StandardTest"), DiscoverySelectors.selectClass("RepeatTest"))
+                .configurationParameter(StreamingResultWriter.FILE, results.toString())
+                .configurationParameter("junit.jupiter.testclass.order.default", "org.junit.jupiter.api.ClassOrderer$ClassName")
+                .build());
+        assertTrue(Files.exists(results));
+        return results;
+    }
+
+    private static Element testSuite(Path report) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(report.toFile()).getDocumentElement();
+    }
+}
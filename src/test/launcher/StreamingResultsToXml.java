@@ -0,0 +1,291 @@
+package launcher;
+
+import launcher.ResultStream.ClassSummary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * StreamingResultWriter 가 남긴 파일을 class 마다 TEST-<class>.xml (Ant / Surefire 형식) 로 바꾼다.
+ * <pre>
+ * java -cp ... launcher.StreamingResultsToXml results.bin build/test-results
+ * </pre>
+ * record 를 처음부터 한 번 읽으며 각 testcase 를 class 별 fragment 파일에 덧붙이고 (열어 두는 파일은 MAX_OPEN_FRAGMENTS 개),
+ * 끝나면 testsuite 머리와 fragment 를 이어 XML 을 만든다. memory 는 class 수에만 비례한다.
+ * footer 가 있으면 읽은 개수와 맞는지 확인하고, 없으면 (중간에 끊긴 실행) 온전한 record 까지만 바꾼다.
+ */
+public final class StreamingResultsToXml {
+
+    static final int MAX_OPEN_FRAGMENTS = 32;
+
+    private static final Logger logger = Logger.getLogger(StreamingResultsToXml.class.getName());
+
+    private StreamingResultsToXml() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: StreamingResultsToXml <results file> <output dir>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        List<Path> reports = convert(Path.of(args[0]), Path.of(args[1]));
+        logger.info(() -> String.format("%d reports written to %s in %d ms", reports.size(), args[1],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    /**
+     * @return 만든 XML 파일 (class 가 처음 나온 순서)
+     */
+    public static List<Path> convert(Path results, Path outputDirectory) throws IOException {
+        Map<Integer, ClassSummary> footer = readFooter(results);
+        Files.createDirectories(outputDirectory);
+        Path fragmentDirectory = Files.createTempDirectory(outputDirectory, "fragments");
+
+        try {
+            Map<Integer, String> classNames = new LinkedHashMap<>();
+            Map<Integer, ClassSummary> summaries = new HashMap<>();
+            Map<Integer, Long> firstStartMillis = new HashMap<>();
+            long records = 0;
+            try (Fragments fragments = new Fragments(fragmentDirectory);
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(results), 1 << 16))) {
+                if (in.readInt() != ResultStream.MAGIC || in.readShort() != ResultStream.VERSION) {
+                    throw new IOException("Not a streamed result file: " + results);
+                }
+                try {
+                    for (int type = in.read(); type >= 0 && type != ResultStream.FOOTER; type = in.read()) {
+                        if (type == ResultStream.CLASS) {
+                            int classId = in.readInt();
+                            classNames.put(classId, ResultStream.readString(in));
+                        } else if (type == ResultStream.TEST) {
+                            int classId = in.readInt();
+                            String name = ResultStream.readString(in);
+                            byte status = in.readByte();
+                            long startMillis = in.readLong();
+                            long nanos = in.readLong();
+                            String message = ResultStream.readString(in);
+                            String exceptionType = ResultStream.readString(in);
+                            String stackTrace = ResultStream.readString(in);
+
+                            summaries.computeIfAbsent(classId, ClassSummary::new).record(records, status, nanos);
+                            firstStartMillis.merge(classId, startMillis, Math::min);
+                            writeTestCase(fragments.writer(classId), classNames.get(classId), name, status, nanos,
+                                    message, exceptionType, stackTrace);
+                            records++;
+                        } else {
+                            throw new IOException("Unknown record type " + type + " in " + results);
+                        }
+                    }
+                } catch (EOFException e) {
+                    long recovered = records;
+                    logger.warning(() -> "Results end in the middle of a record, converting the first " + recovered + " results");
+                }
+            }
+
+            if (footer == null) {
+                long recovered = records;
+                logger.warning(() -> "No footer in " + results + ", the run did not finish. " + recovered + " results recovered");
+            } else {
+                verify(footer, summaries, results);
+            }
+
+            List<Path> reports = new ArrayList<>();
+            for (Map.Entry<Integer, String> entry : classNames.entrySet()) {
+                ClassSummary summary = summaries.get(entry.getKey());
+                if (summary != null) {
+                    reports.add(writeReport(outputDirectory, entry.getValue(), summary, firstStartMillis.get(entry.getKey()),
+                            fragmentDirectory.resolve(entry.getKey() + ".xml")));
+                }
+            }
+            return reports;
+        } finally {
+            try (Stream<Path> files = Files.list(fragmentDirectory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(fragmentDirectory);
+        }
+    }
+
+    /**
+     * @return trailer 가 없으면 null
+     */
+    static Map<Integer, ClassSummary> readFooter(Path results) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(results.toFile(), "r")) {
+            long size = file.length();
+            if (size < Integer.BYTES + Short.BYTES + ResultStream.TRAILER_LENGTH) {
+                return null;
+            }
+            file.seek(size - ResultStream.TRAILER_LENGTH);
+            long footerOffset = file.readLong();
+            if (file.readInt() != ResultStream.MAGIC || footerOffset < 0 || footerOffset >= size) {
+                return null;
+            }
+            file.seek(footerOffset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(file.getChannel())));
+            if (in.readByte() != ResultStream.FOOTER) {
+                throw new IOException("Corrupt footer at " + footerOffset + " in " + results);
+            }
+            Map<Integer, ClassSummary> summaries = new HashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                ClassSummary summary = ClassSummary.readFrom(in);
+                summaries.put(summary.id, summary);
+            }
+            return summaries;
+        }
+    }
+
+    private static void verify(Map<Integer, ClassSummary> footer, Map<Integer, ClassSummary> read, Path results) throws IOException {
+        if (footer.size() != read.size()) {
+            throw new IOException("Footer of " + results + " lists " + footer.size() + " classes, records have " + read.size());
+        }
+        for (ClassSummary expected : footer.values()) {
+            ClassSummary actual = read.get(expected.id);
+            if (actual == null || actual.tests != expected.tests || actual.failures != expected.failures
+                    || actual.errors != expected.errors || actual.skipped != expected.skipped) {
+                throw new IOException("Records of class #" + expected.id + " in " + results + " do not match the footer");
+            }
+        }
+    }
+
+    private static Path writeReport(Path outputDirectory, String className, ClassSummary summary, long firstStartMillis,
+                                    Path fragment) throws IOException {
+        Path report = outputDirectory.resolve("TEST-" + className + ".xml");
+        Path temporary = Files.createTempFile(outputDirectory, "TEST-", ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuite name=\"");
+                escape(className, out, true);
+                out.write(String.format(Locale.ROOT, "\" tests=\"%d\" skipped=\"%d\" failures=\"%d\" errors=\"%d\" time=\"%s\" timestamp=\"%s\">\n",
+                        summary.tests, summary.skipped, summary.failures, summary.errors, seconds(summary.nanos),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(firstStartMillis), ZoneId.systemDefault()).truncatedTo(ChronoUnit.SECONDS)));
+                try (BufferedReader fragmentReader = Files.newBufferedReader(fragment, StandardCharsets.UTF_8)) {
+                    fragmentReader.transferTo(out);
+                }
+                out.write("</testsuite>\n");
+            }
+            Files.move(temporary, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return report;
+    }
+
+    private static void writeTestCase(Writer out, String className, String name, byte status, long nanos,
+                                      String message, String exceptionType, String stackTrace) throws IOException {
+        out.write("  <testcase name=\"");
+        escape(name, out, true);
+        out.write("\" classname=\"");
+        escape(className, out, true);
+        out.write("\" time=\"" + seconds(nanos) + "\"");
+        switch (status) {
+            case ResultStream.SUCCESSFUL -> {
+                out.write("/>\n");
+                return;
+            }
+            case ResultStream.SKIPPED -> {
+                out.write(">\n    <skipped message=\"");
+                escape(message, out, true);
+                out.write("\"/>\n");
+            }
+            default -> {
+                String element = status == ResultStream.FAILURE ? "failure" : "error";
+                out.write(">\n    <" + element + " message=\"");
+                escape(message, out, true);
+                out.write("\" type=\"");
+                escape(exceptionType, out, true);
+                out.write("\">");
+                escape(stackTrace, out, false);
+                out.write("</" + element + ">\n");
+            }
+        }
+        out.write("  </testcase>\n");
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e9);
+    }
+
+    /**
+     * XML 1.0 에 쓸 수 없는 제어 문자는 ? 로 바꾼다.
+     */
+    static void escape(String value, Writer out, boolean attribute) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.write("&amp;");
+                case '<' -> out.write("&lt;");
+                case '>' -> out.write("&gt;");
+                case '"' -> out.write(attribute ? "&quot;" : "\"");
+                case '\n' -> out.write(attribute ? "&#10;" : "\n");
+                case '\r' -> out.write(attribute ? "&#13;" : "\r");
+                case '\t' -> out.write(attribute ? "&#9;" : "\t");
+                default -> out.write(c < 0x20 || c == 0xFFFE || c == 0xFFFF ? '?' : c);
+            }
+        }
+    }
+
+    /**
+     * class 별 fragment 파일. 최근에 쓴 MAX_OPEN_FRAGMENTS 개만 열어 둔다.
+     */
+    private static final class Fragments implements Closeable {
+
+        private final Path directory;
+        private final LinkedHashMap<Integer, Writer> open = new LinkedHashMap<>(16, 0.75f, true);
+
+        Fragments(Path directory) {
+            this.directory = directory;
+        }
+
+        Writer writer(int classId) throws IOException {
+            Writer writer = open.get(classId);
+            if (writer == null) {
+                if (open.size() == MAX_OPEN_FRAGMENTS) {
+                    Iterator<Writer> eldest = open.values().iterator();
+                    Writer closing = eldest.next();
+                    eldest.remove();
+                    closing.close();
+                }
+                writer = Files.newBufferedWriter(directory.resolve(classId + ".xml"), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                open.put(classId, writer);
+            }
+            return writer;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (Writer writer : open.values()) {
+                writer.close();
+            }
+            open.clear();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package launcher;
+
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TagFilter;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * JUnit platform 을 올려 둔 채로 요청마다 test 를 실행하는 daemon. JVM 시작과 lib/ jar 로딩을 한 번만 한다.
+ * <pre>
+ * java -cp out/main:out/test:lib/* launcher.TestDaemon out/main out/test [port]
+ * java -cp out/test launcher.TestDaemonClient [--port n] [class:Foo | method:Foo#bar | package:common]... [--include-tag expr]...
+ * </pre>
+ * main / test class 는 ReloadingClassLoader 로 읽고, 요청을 받을 때 class directory 의 파일 목록, 크기, 수정 시각이
+ * 바뀌었으면 loader 를 새로 만든다. 바뀌지 않았으면 이미 load 된 class 를 그대로 쓴다.
+ * Launcher 는 처음 한 번만 만들고, 요청을 실행하는 동안 context class loader 를 그 loader 로 바꿔
+ * engine 이 class, junit-platform.properties 를 새 loader 에서 찾게 한다.
+ * <p>
+ * loopback 에서만 받으며 요청은 한 번에 하나씩 처리한다. (test 끼리 system property 등을 공유하므로)
+ * 요청 줄을 REQUEST_TIMEOUT 안에 보내지 않는 client 는 끊는다. 요청을 처리하다 실패하면 (build 가 class directory 를
+ * 다시 쓰는 중이라 파일이 사라지는 등) exit 2 로 응답하고 다음 요청을 받는다.
+ * daemon 안의 실행은 junit.reporter.sink.file, junit.results.stream.file 을 쓰지 않는다. (daemon 을 띄운 JVM 의 -D 를 물려받아 요청마다 같은 파일을 덮어쓰지 않도록)
+ * 요청과 응답은 줄 단위 (UTF-8) 이다.
+ * <pre>
+ * 요청: run  arg...   (ForkedTestRunner.line 형식, selector 가 없으면 test class directory 전체)
+ *       stop
+ * 응답: summary / failure 줄... 마지막 줄은 exit  code
+ * </pre>
+ */
+public final class TestDaemon implements Closeable {
+
+    public static final int DEFAULT_PORT = 7171;
+
+    static final String RUN = "run";
+    static final String STOP = "stop";
+    static final String EXIT = "exit";
+
+    static final String CLASS = "class:";
+    static final String METHOD = "method:";
+    static final String PACKAGE = "package:";
+
+    /**
+     * 연결한 client 가 요청 줄을 보낼 때까지 기다리는 시간
+     */
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Logger logger = Logger.getLogger(TestDaemon.class.getName());
+
+    private final Path testClasses;
+    private final List<Path> classDirectories;
+    private final ServerSocket server;
+    private final Launcher launcher;
+    private final int requestTimeoutMillis;
+
+    private ReloadingClassLoader loader;
+    private long fingerprint;
+    private int generation;
+
+    public TestDaemon(Path mainClasses, Path testClasses, int port) throws IOException {
+        this(mainClasses, testClasses, port, REQUEST_TIMEOUT);
+    }
+
+    TestDaemon(Path mainClasses, Path testClasses, int port, Duration requestTimeout) throws IOException {
+        this.testClasses = testClasses;
+        this.classDirectories = List.of(mainClasses, testClasses);
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.launcher = LauncherFactory.create();
+        this.requestTimeoutMillis = Math.toIntExact(requestTimeout.toMillis());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: TestDaemon <main classes> <test classes> [port]");
+            System.exit(2);
+        }
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PORT;
+        try (TestDaemon daemon = new TestDaemon(Path.of(args[0]), Path.of(args[1]), port)) {
+            logger.info(() -> "test daemon listening on " + daemon.getPort());
+            daemon.serve();
+        }
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * stop 요청을 받거나 close 될 때까지 요청을 처리한다.
+     */
+    public void serve() throws IOException {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept();
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                socket.setSoTimeout(requestTimeoutMillis);
+                String line = in.readLine();
+                if (line == null) {
+                    continue;
+                }
+                String[] fields = ForkedTestRunner.fields(line);
+                if (fields[0].equals(STOP)) {
+                    out.println(EXIT + "\t0");
+                    out.flush();
+                    close();
+                    return;
+                }
+                int exitCode;
+                try {
+                    exitCode = fields[0].equals(RUN) ? run(List.of(fields).subList(1, fields.length), out) : usage(line, out);
+                } catch (IOException | RuntimeException e) {
+                    logger.log(Level.WARNING, "Request failed: " + line, e);
+                    out.println("request failed: " + e);
+                    exitCode = 2;
+                }
+                out.println(EXIT + "\t" + exitCode);
+                out.flush();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    logger.log(Level.WARNING, "Client connection failed", e);
+                }
+            }
+        }
+    }
+
+    int run(List<String> arguments, PrintWriter out) throws IOException {
+        long start = System.nanoTime();
+        boolean reloaded = refreshClassLoader();
+        long loaded = System.nanoTime();
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        try {
+            launcher.execute(discoveryRequest(arguments), listener);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+
+        TestExecutionSummary summary = listener.getSummary();
+        out.printf("%s class loader #%d in %d ms, tests in %d ms%n", reloaded ? "reloaded" : "reused", generation,
+                TimeUnit.NANOSECONDS.toMillis(loaded - start), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loaded));
+        summary.printTo(out);
+        summary.printFailuresTo(out, 10);
+        return summary.getTotalFailureCount() == 0 ? 0 : 1;
+    }
+
+    private LauncherDiscoveryRequest discoveryRequest(List<String> arguments) {
+        List<DiscoverySelector> selectors = new ArrayList<>();
+        List<String> includeTags = new ArrayList<>();
+        List<String> excludeTags = new ArrayList<>();
+        for (int i = 0; i < arguments.size(); i++) {
+            String argument = arguments.get(i);
+            if (argument.equals(ForkedTestRunner.INCLUDE_TAG)) {
+                includeTags.add(arguments.get(++i));
+            } else if (argument.equals(ForkedTestRunner.EXCLUDE_TAG)) {
+                excludeTags.add(arguments.get(++i));
+            } else if (argument.startsWith(CLASS)) {
+                selectors.add(DiscoverySelectors.selectClass(argument.substring(CLASS.length())));
+            } else if (argument.startsWith(METHOD)) {
+                selectors.add(DiscoverySelectors.selectMethod(argument.substring(METHOD.length())));
+            } else if (argument.startsWith(PACKAGE)) {
+                selectors.add(DiscoverySelectors.selectPackage(argument.substring(PACKAGE.length())));
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + argument);
+            }
+        }
+        if (selectors.isEmpty()) {
+            selectors.addAll(DiscoverySelectors.selectClasspathRoots(Set.of(testClasses)));
+        }
+        LauncherDiscoveryRequestBuilder builder = request().selectors(selectors)
+                .configurationParameter(AsyncReportEntryListener.FILE, "")
+                .configurationParameter(StreamingResultWriter.FILE, "");
+        if (!includeTags.isEmpty()) {
+            builder.filters(TagFilter.includeTags(includeTags));
+        }
+        if (!excludeTags.isEmpty()) {
+            builder.filters(TagFilter.excludeTags(excludeTags));
+        }
+        return builder.build();
+    }
+
+    /**
+     * class directory 가 바뀌었으면 loader 를 새로 만든다.
+     *
+     * @return 새로 만들었는지
+     */
+    boolean refreshClassLoader() throws IOException {
+        long current = fingerprint(classDirectories);
+        if (loader != null && current == fingerprint) {
+            return false;
+        }
+        if (loader != null) {
+            loader.close();
+        }
+        URL[] urls = new URL[classDirectories.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classDirectories.get(i).toUri().toURL();
+        }
+        loader = new ReloadingClassLoader(urls, TestDaemon.class.getClassLoader());
+        fingerprint = current;
+        generation++;
+        return true;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * class directory 의 파일 경로, 크기, 수정 시각으로 만든 hash
+     */
+    static long fingerprint(List<Path> directories) throws IOException {
+        long hash = 17;
+        for (Path directory : directories) {
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        hash = 31 * hash + file.hashCode();
+                        hash = 31 * hash + attributes.size();
+                        hash = 31 * hash + attributes.lastModifiedTime().to(TimeUnit.MICROSECONDS);
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return hash;
+    }
+
+    private static int usage(String line, PrintWriter out) {
+        out.println("unknown request: " + line);
+        return 2;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        if (loader != null) {
+            loader.close();
+        }
+    }
+}
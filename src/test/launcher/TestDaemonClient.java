@@ -0,0 +1,62 @@
+package launcher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TestDaemon 에 실행 요청을 보내고 응답을 출력한다. exit code 는 daemon 이 돌려준 값이다.
+ * <pre>
+ * java -cp out/test launcher.TestDaemonClient [--port n] [--stop] [class:Foo | method:Foo#bar | package:common]... [--include-tag expr]...
+ * </pre>
+ * JUnit 을 load 하지 않으므로 client JVM 은 바로 끝난다.
+ */
+public final class TestDaemonClient {
+
+    static final String PORT = "--port";
+    static final String STOP = "--stop";
+
+    private TestDaemonClient() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = TestDaemon.DEFAULT_PORT;
+        List<String> request = new ArrayList<>(List.of(TestDaemon.RUN));
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case PORT -> port = Integer.parseInt(args[++i]);
+                case STOP -> request.set(0, TestDaemon.STOP);
+                default -> request.add(args[i]);
+            }
+        }
+        System.exit(submit(port, request, System.out));
+    }
+
+    /**
+     * @param request run / stop 과 그 인자
+     * @return daemon 이 돌려준 exit code
+     */
+    public static int submit(int port, List<String> request, PrintStream out) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            writer.println(ForkedTestRunner.line(request.toArray(String[]::new)));
+            writer.flush();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith(TestDaemon.EXIT + "\t")) {
+                    return Integer.parseInt(line.substring(TestDaemon.EXIT.length() + 1));
+                }
+                out.println(line);
+            }
+        }
+        throw new IOException("daemon closed the connection without an exit code");
+    }
+}
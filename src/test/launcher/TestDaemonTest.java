@@ -0,0 +1,134 @@
+package launcher;
+
+import example.Calculator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+
+import static launcher.ClassDirectories.copyTree;
+import static launcher.ClassDirectories.location;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TestDaemonTest {
+
+    private Path testClasses;
+    private TestDaemon daemon;
+    private Thread serving;
+
+    @BeforeEach
+    void startDaemon(@TempDir Path dir) throws IOException, URISyntaxException {
+        // daemon 이 자신의 class path 와 다른 directory 에서 class 를 읽는지 보기 위해 복사본을 쓴다
+        Path mainClasses = copyTree(location(Calculator.class), dir.resolve("main"));
+        testClasses = copyTree(location(TestDaemonTest.class), dir.resolve("test"));
+        daemon = new TestDaemon(mainClasses, testClasses, 0, Duration.ofMillis(500));
+        serving = Thread.ofPlatform().daemon().name("test-daemon").start(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void stopDaemon() throws IOException, InterruptedException {
+        TestDaemonClient.submit(daemon.getPort(), List.of(TestDaemon.STOP), new PrintStream(new ByteArrayOutputStream()));
+        serving.join(5_000);
+        assertFalse(serving.isAlive());
+    }
+
+    @Test
+    void reusesClassLoaderUntilClassesChange() throws IOException {
+        String first = submit(0, TestDaemon.RUN, TestDaemon.CLASS + "TaggingDemo");
+        String second = submit(0, TestDaemon.RUN, TestDaemon.CLASS + "TaggingDemo");
+
+        assertTrue(first.startsWith("reloaded class loader #1"), first);
+        assertTrue(first.contains("2 tests successful"), first);
+        assertTrue(second.startsWith("reused class loader #1"), second);
+
+        Path taggingDemo = testClasses.resolve("TaggingDemo.class");
+        Files.setLastModifiedTime(taggingDemo, FileTime.fromMillis(Files.getLastModifiedTime(taggingDemo).toMillis() + 1_000));
+        String third = submit(0, TestDaemon.RUN, TestDaemon.CLASS + "TaggingDemo");
+
+        assertTrue(third.startsWith("reloaded class loader #2"), third);
+        assertEquals(2, daemon.getGeneration());
+    }
+
+    @Test
+    void loadsTestClassesFromItsOwnClassLoader() throws IOException {
+        String output = submit(0, TestDaemon.RUN, TestDaemon.METHOD + "launcher.TestDaemonTest$LoaderProbe#loadedByDaemon");
+
+        assertTrue(output.contains("1 tests successful"), output);
+    }
+
+    @Test
+    void appliesTagFilterAndReportsFailures() throws IOException {
+        String output = submit(1, TestDaemon.RUN, TestDaemon.CLASS + "StandardTest", ForkedTestRunner.EXCLUDE_TAG, "none");
+
+        assertTrue(output.contains("1 tests failed"), output);
+        assertTrue(output.contains("a failing test"), output);
+        assertTrue(submit(0, TestDaemon.RUN, TestDaemon.CLASS + "TaggingDemo", ForkedTestRunner.INCLUDE_TAG, "karina")
+                .contains("1 tests successful"));
+    }
+
+    @Test
+    void rejectsUnknownArguments() throws IOException {
+        assertTrue(submit(2, TestDaemon.RUN, "TaggingDemo").contains("Unknown argument: TaggingDemo"));
+    }
+
+    @Test
+    void keepsServingWhenClassDirectoryCannotBeRead() throws IOException {
+        // build 가 파일을 지우는 도중처럼 fingerprint 를 만들다 NoSuchFileException 이 난다
+        Path dangling = Files.createSymbolicLink(testClasses.resolve("Dangling.class"), testClasses.resolve("missing"));
+        assertTrue(submit(2, TestDaemon.RUN, TestDaemon.CLASS + "TaggingDemo").contains("request failed"));
+
+        Files.delete(dangling);
+        assertTrue(submit(0, TestDaemon.RUN, TestDaemon.CLASS + "TaggingDemo").contains("2 tests successful"));
+    }
+
+    @Test
+    void dropsClientsThatSendNothing() throws IOException {
+        try (Socket idle = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+            assertTrue(submit(0, TestDaemon.RUN, TestDaemon.CLASS + "TaggingDemo").contains("2 tests successful"));
+            assertEquals(-1, idle.getInputStream().read());
+        }
+    }
+
+    private String submit(int expectedExitCode, String... request) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int exitCode = TestDaemonClient.submit(daemon.getPort(), List.of(request), new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        String output = buffer.toString(StandardCharsets.UTF_8);
+        assertEquals(expectedExitCode, exitCode, output);
+        return output;
+    }
+
+    /**
+     * daemon 안에서 실행된다. 밖에서 (IDE 등) 실행되면 abort 한다.
+     * launcher package 도 child-first 로 다시 load 되므로 ReloadingClassLoader.class 와는 비교할 수 없어 이름으로 확인한다.
+     */
+    static class LoaderProbe {
+
+        @Test
+        void loadedByDaemon() {
+            ClassLoader loader = getClass().getClassLoader();
+            assumeTrue("reloading".equals(loader.getName()));
+            assertSame(loader, Calculator.class.getClassLoader());
+            assertSame(loader, Thread.currentThread().getContextClassLoader());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package example;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Calculator bulk 연산의 Vector API 구현
+ * <p>
+ * src/main 과 따로 --add-modules jdk.incubator.vector 로 컴파일하는 source root (src/vector) 에 있다.
+ * Calculator 가 모듈이 있을 때만 reflection 으로 만든다.
+ */
+final class VectorKernels implements BulkKernels {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    VectorKernels() {
+    }
+
+    @Override
+    public void add(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(length); i < upper; i += SPECIES.length()) {
+            IntVector va = IntVector.fromArray(SPECIES, a, aOffset + i);
+            IntVector vb = IntVector.fromArray(SPECIES, b, bOffset + i);
+            va.add(vb).intoArray(result, resultOffset + i);
+        }
+        for (; i < length; i++) {
+            result[resultOffset + i] = a[aOffset + i] + b[bOffset + i];
+        }
+    }
+
+    @Override
+    public void multiply(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(length); i < upper; i += SPECIES.length()) {
+            IntVector va = IntVector.fromArray(SPECIES, a, aOffset + i);
+            IntVector vb = IntVector.fromArray(SPECIES, b, bOffset + i);
+            va.mul(vb).intoArray(result, resultOffset + i);
+        }
+        for (; i < length; i++) {
+            result[resultOffset + i] = a[aOffset + i] * b[bOffset + i];
+        }
+    }
+
+    /**
+     * Math.addExact 와 같은 판정: 두 피연산자와 결과의 부호가 모두 다르면 overflow
+     */
+    @Override
+    public void addExact(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(length); i < upper; i += SPECIES.length()) {
+            IntVector va = IntVector.fromArray(SPECIES, a, aOffset + i);
+            IntVector vb = IntVector.fromArray(SPECIES, b, bOffset + i);
+            IntVector sum = va.add(vb);
+            IntVector overflow = va.lanewise(VectorOperators.XOR, sum).and(vb.lanewise(VectorOperators.XOR, sum));
+            if (overflow.compare(VectorOperators.LT, 0).anyTrue()) {
+                throw new ArithmeticException("integer overflow");
+            }
+            sum.intoArray(result, resultOffset + i);
+        }
+        for (; i < length; i++) {
+            result[resultOffset + i] = Math.addExact(a[aOffset + i], b[bOffset + i]);
+        }
+    }
+}